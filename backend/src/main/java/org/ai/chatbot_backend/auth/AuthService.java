@@ -22,7 +22,7 @@ public class AuthService {
     public AuthResponse register(RegisterRequest request) {
         User saved = userService.createUser(request.getUsername(), request.getEmail(), request.getPassword());
         Map<String,Object> claims = new HashMap<>();
-        claims.put("name", saved.getName());
+        claims.put(JwtService.CLAIM_NAME, saved.getName());
         var token = jwtService.generateToken(claims, saved);
         return AuthResponse.builder()
                 .token(token)
@@ -41,7 +41,7 @@ public class AuthService {
         );
         var user = userService.findUserByEmail(email);
         Map<String,Object> claims = new HashMap<>();
-        claims.put("name", user.getName());
+        claims.put(JwtService.CLAIM_NAME, user.getName());
         var token = jwtService.generateToken(claims, user);
         return AuthResponse.builder()
                 .token(token)
@@ -32,10 +32,11 @@ public class PasswordResetController {
 
     @Operation(
             summary = "Request password reset email",
-            description = "Sends a password reset email if the user exists. Always returns 202 for unknown users to avoid email enumeration.")
+            description = "Queues a password reset email if the user exists and returns without waiting for SMTP. "
+                    + "Always returns 202 for unknown users to avoid email enumeration.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "202", description = "Request accepted"),
-            @ApiResponse(responseCode = "500", description = "Email failed to send")
+            @ApiResponse(responseCode = "500", description = "Email could not be queued")
     })
     @PostMapping("/auth/password-reset/request")
     public ResponseEntity<?> sendPasswordResetEmail(@RequestBody EmailDetails emailDetails) {
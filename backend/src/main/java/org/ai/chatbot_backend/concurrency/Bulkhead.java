@@ -0,0 +1,129 @@
+package org.ai.chatbot_backend.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.ai.chatbot_backend.exception.ProviderBusyException;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of in-flight calls to one provider. Callers over the limit wait in a bounded queue
+ * for at most {@code maxWait}; when the queue is full they are rejected immediately.
+ */
+public class Bulkhead {
+    private static final String BUSY_MESSAGE = "The assistant is busy right now, please try again in a moment.";
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final Duration maxWait;
+
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Timer waitTimer;
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueue, Duration maxWait, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxConcurrent, true);
+
+        Gauge.builder("provider.calls.in_flight", permits, p -> maxConcurrent - p.availablePermits())
+                .tag("provider", name)
+                .register(meterRegistry);
+        Gauge.builder("provider.calls.queued", waiting, AtomicInteger::get)
+                .tag("provider", name)
+                .register(meterRegistry);
+        waitTimer = Timer.builder("provider.calls.wait")
+                .tag("provider", name)
+                .register(meterRegistry);
+        queueFullRejections = Counter.builder("provider.calls.rejected")
+                .tag("provider", name)
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        timeoutRejections = Counter.builder("provider.calls.rejected")
+                .tag("provider", name)
+                .tag("reason", "timeout")
+                .register(meterRegistry);
+    }
+
+    public <T> T call(Supplier<T> call) {
+        acquire();
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Holds a permit from subscription until the stream terminates or is cancelled.
+     */
+    public <T> Flux<T> stream(Supplier<Flux<T>> call) {
+        return Flux.defer(() -> {
+            acquire();
+            try {
+                return call.get().doFinally(signal -> permits.release());
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        });
+    }
+
+    private void acquire() {
+        if (tryAcquireNow()) {
+            waitTimer.record(Duration.ZERO);
+            return;
+        }
+
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            queueFullRejections.increment();
+            throw new ProviderBusyException(BUSY_MESSAGE);
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                timeoutRejections.increment();
+                throw new ProviderBusyException(BUSY_MESSAGE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProviderBusyException(BUSY_MESSAGE);
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // the untimed tryAcquire() barges past queued callers, the timed one with no wait keeps the semaphore fair
+    private boolean tryAcquireNow() {
+        try {
+            return permits.tryAcquire(0, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProviderBusyException(BUSY_MESSAGE);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+}
@@ -3,6 +3,7 @@ package org.ai.chatbot_backend.config;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
 import org.ai.chatbot_backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
@@ -18,7 +19,8 @@ import org.springframework.web.client.RestClient;
 
 import java.net.http.HttpClient;
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 @RequiredArgsConstructor
@@ -46,13 +48,70 @@ public class ApplicationConfig {
     }
 
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("signedUrls");
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .expireAfterWrite(10, TimeUnit.MINUTES));
+    public CacheManager cacheManager(
+            @Value("${app.cache.guest-chat.max-size:1000}") long guestChatMaxSize,
+            @Value("${app.cache.guest-chat.ttl:6h}") Duration guestChatTtl,
+            @Value("${app.cache.recipes.max-size:500}") long recipesMaxSize,
+            @Value("${app.cache.recipes.ttl:6h}") Duration recipesTtl,
+            @Value("${app.chat.history.cache-size:10000}") long conversationWindowsMaxSize,
+            @Value("${app.chat.history.cache-idle:30m}") Duration conversationWindowsIdle,
+            @Value("${app.cache.principals.max-size:10000}") long principalsMaxSize,
+            @Value("${app.cache.principals.ttl:60s}") Duration principalsTtl,
+            @Value("${app.cache.signed-urls.max-size:20000}") long signedUrlsMaxSize,
+            @Value("${app.r2.signed-url.validity:15m}") Duration signedUrlValidity,
+            @Value("${app.cache.signed-urls.min-remaining:5m}") Duration signedUrlMinRemaining) {
+        if (signedUrlMinRemaining.compareTo(signedUrlValidity) >= 0) {
+            throw new IllegalStateException("app.cache.signed-urls.min-remaining must be shorter than app.r2.signed-url.validity");
+        }
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheNames.SIGNED_URLS);
+        // entries are written right after signing, dropping them min-remaining early means a cached URL
+        // is never handed out with less validity than that
+        cacheManager.registerCustomCache(CacheNames.SIGNED_URLS, Caffeine.newBuilder()
+                .maximumSize(signedUrlsMaxSize)
+                .expireAfterWrite(signedUrlValidity.minus(signedUrlMinRemaining))
+                .recordStats()
+                .build());
+        // model responses, recordStats feeds the cache.gets hit/miss metrics
+        cacheManager.registerCustomCache(CacheNames.GUEST_CHAT_RESPONSES, Caffeine.newBuilder()
+                .maximumSize(guestChatMaxSize)
+                .expireAfterWrite(guestChatTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(CacheNames.RECIPE_RESPONSES, Caffeine.newBuilder()
+                .maximumSize(recipesMaxSize)
+                .expireAfterWrite(recipesTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(CacheNames.CONVERSATION_WINDOWS, Caffeine.newBuilder()
+                .maximumSize(conversationWindowsMaxSize)
+                .expireAfterAccess(conversationWindowsIdle)
+                .recordStats()
+                .build());
+        // authenticated users, short TTL bounds staleness for changes that do not evict explicitly
+        cacheManager.registerCustomCache(CacheNames.PRINCIPALS, Caffeine.newBuilder()
+                .maximumSize(principalsMaxSize)
+                .expireAfterWrite(principalsTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(CacheNames.TOKEN_VERSIONS, Caffeine.newBuilder()
+                .maximumSize(principalsMaxSize)
+                .expireAfterWrite(principalsTtl)
+                .recordStats()
+                .build());
         return cacheManager;
     }
 
+    @Bean
+    public ExecutorService modelCallExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${app.execution.platform-threads:32}") int platformThreads) {
+        // side model calls (e.g. conversation titles) only wait on the network, follow the request execution mode
+        if (virtualThreads) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        return Executors.newFixedThreadPool(platformThreads);
+    }
+
     @Bean
     public RestClient restClient(RestClient.Builder builder) {
         // Configure HTTP client with increased timeouts for image generation
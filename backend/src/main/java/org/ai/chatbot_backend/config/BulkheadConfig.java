@@ -0,0 +1,31 @@
+package org.ai.chatbot_backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.ai.chatbot_backend.concurrency.Bulkhead;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class BulkheadConfig {
+
+    @Bean
+    public Bulkhead chatBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${app.bulkhead.chat.max-concurrent:16}") int maxConcurrent,
+            @Value("${app.bulkhead.chat.max-queue:64}") int maxQueue,
+            @Value("${app.bulkhead.chat.max-wait:20s}") Duration maxWait) {
+        return new Bulkhead("chat", maxConcurrent, maxQueue, maxWait, meterRegistry);
+    }
+
+    @Bean
+    public Bulkhead imageBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${app.bulkhead.image.max-concurrent:4}") int maxConcurrent,
+            @Value("${app.bulkhead.image.max-queue:16}") int maxQueue,
+            @Value("${app.bulkhead.image.max-wait:30s}") Duration maxWait) {
+        return new Bulkhead("image", maxConcurrent, maxQueue, maxWait, meterRegistry);
+    }
+}
@@ -0,0 +1,13 @@
+package org.ai.chatbot_backend.config;
+
+public final class CacheNames {
+    public static final String SIGNED_URLS = "signedUrls";
+    public static final String GUEST_CHAT_RESPONSES = "guestChatResponses";
+    public static final String RECIPE_RESPONSES = "recipeResponses";
+    public static final String CONVERSATION_WINDOWS = "conversationWindows";
+    public static final String PRINCIPALS = "principals";
+    public static final String TOKEN_VERSIONS = "tokenVersions";
+
+    private CacheNames() {
+    }
+}
@@ -1,15 +1,19 @@
 package org.ai.chatbot_backend.config;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.ai.chatbot_backend.enums.UserRole;
+import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.security.PrincipalCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,7 +25,11 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+
+    // trust uid/role from the token and only check its version, instead of loading the user
+    @Value("${app.security.jwt.stateless:false}")
+    private boolean stateless;
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
@@ -48,11 +56,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             jwt = authHeader.substring(7);
-            userEmail = jwtService.extractUsername(jwt);
+            Claims claims = jwtService.parseClaims(jwt);
+            userEmail = claims.getSubject();
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails = stateless ? principalFromClaims(claims) : principalCache.load(userEmail);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (userDetails != null && jwtService.isTokenValid(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities()
                     );
@@ -65,4 +74,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails principalFromClaims(Claims claims) {
+        Long userId = claims.get(JwtService.CLAIM_USER_ID, Long.class);
+        String role = claims.get(JwtService.CLAIM_ROLE, String.class);
+        Integer version = claims.get(JwtService.CLAIM_TOKEN_VERSION, Integer.class);
+        if (userId == null || role == null || version == null) {
+            // issued before these claims existed
+            return principalCache.load(claims.getSubject());
+        }
+        if (principalCache.tokenVersion(userId) != version) {
+            return null;
+        }
+        return User.builder()
+                .id(userId)
+                .email(claims.getSubject())
+                .name(claims.get(JwtService.CLAIM_NAME, String.class))
+                .role(UserRole.valueOf(role))
+                .tokenVersion(version)
+                .build();
+    }
 }
@@ -1,10 +1,12 @@
 package org.ai.chatbot_backend.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import org.ai.chatbot_backend.model.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -17,29 +19,46 @@ import java.util.function.Function;
 
 @Service
 public class JwtService {
-
-    @Value("${jwt.secret}")
-    private String SECRET_KEY;
+    public static final String CLAIM_NAME = "name";
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
+    // built once, both are immutable and thread safe
+    private final Key signInKey;
+    private final JwtParser jwtParser;
+
+    public JwtService(@Value("${jwt.secret}") String secretKey) {
+        this.signInKey = buildSignInKey(secretKey);
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
+    /**
+     * Verifies the token and returns all of its claims in one parse; the parser rejects a bad signature
+     * or an expired token.
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    private Key getSignInKey() {
+    private static Key buildSignInKey(String secretKey) {
         byte[] keyBytes;
         try {
-            keyBytes = Decoders.BASE64.decode(SECRET_KEY);
+            keyBytes = Decoders.BASE64.decode(secretKey);
         } catch (IllegalArgumentException e) {
-            keyBytes = decodeHexSafely(SECRET_KEY);
+            keyBytes = decodeHexSafely(secretKey);
         }
         return Keys.hmacShaKeyFor(keyBytes);
     }
@@ -71,27 +90,33 @@ public class JwtService {
             Map<String, Object> extraClaims,
             UserDetails userDetails
     ) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        if (userDetails instanceof User user) {
+            // enough to rebuild the principal without a users lookup, see JwtAuthenticationFilter
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole().name());
+            claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        }
         return Jwts
                 .builder()
-                .setClaims(extraClaims)
+                .setClaims(claims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpire(token);
-    }
-
-    private boolean isTokenExpire(String token) {
-        return extractExpirationDate(token).before(new Date());
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private Date extractExpirationDate(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        Integer version = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        if (version != null && userDetails instanceof User user && user.getTokenVersion() != version) {
+            return false;
+        }
+        return userDetails.getUsername().equals(claims.getSubject()) && !claims.getExpiration().before(new Date());
     }
 
 
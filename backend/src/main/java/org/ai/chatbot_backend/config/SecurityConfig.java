@@ -1,5 +1,6 @@
 package org.ai.chatbot_backend.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -32,6 +33,8 @@ public class SecurityConfig {
                 .sessionManagement(sm ->
                         sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // streamed responses complete on an async dispatch, access was already checked on the request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/api/v1/auth/password-reset/request",
                                 "/api/v1/auth/password-reset/verify",
@@ -39,11 +42,12 @@ public class SecurityConfig {
                                 "/api/v1/auth/register",
                                 "/api/v1/auth/login",
                                 "/api/v1/chat/guest",
+                                "/api/v1/chat/guest/stream",
                                 "/api/v1/recipes/download/guest"
                         ).anonymous()
                         .requestMatchers("/api/v1/chat/**").authenticated()
                         .requestMatchers("/api/v1/recipes/download/**").authenticated()
-                        .requestMatchers("/api/v1/recipes").permitAll()
+                        .requestMatchers("/api/v1/recipes", "/api/v1/recipes/stream").permitAll()
                         .requestMatchers("/api/v1/food-images/**").permitAll()
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/api/v1/users/me/**").authenticated()
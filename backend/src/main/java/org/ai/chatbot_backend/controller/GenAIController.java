@@ -9,6 +9,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.ai.chatbot_backend.dto.*;
+import org.ai.chatbot_backend.exception.InappropriateRequestRefusalException;
+import org.ai.chatbot_backend.exception.ProviderBusyException;
 import org.ai.chatbot_backend.model.Conversation;
 import org.ai.chatbot_backend.model.User;
 import org.ai.chatbot_backend.security.AuthHelper;
@@ -20,6 +22,16 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 @Slf4j
 @RestController
@@ -30,6 +42,8 @@ import org.springframework.web.bind.annotation.*;
         name = "1. AI & Conversations",
         description = "Chat, recipe generation, image generation and related downloads")
 public class GenAIController {
+    private static final long STREAM_TIMEOUT_MS = 180_000L;
+
     private final ChatService chatService;
     private final ImageService imageService;
     private final RecipeService recipeService;
@@ -60,6 +74,28 @@ public class GenAIController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @Operation(
+            summary = "Start conversation (authenticated, streamed)",
+            description = "Creates conversation for the authenticated user and streams the assistant's response as "
+                    + "server-sent events: one `token` event per chunk, then a `done` event with the full reply.")
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream started"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "400", description = "Invalid request")
+    })
+    @PostMapping(path = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamConversation(
+            @RequestBody ChatMessageRequest request, Authentication authentication) {
+        User user = authHelper.getAuthenticatedUserOrNull(authentication);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        AssistantMessageStream stream = chatService.streamNewConversation(user, request.getMessage());
+        return ResponseEntity.ok(toSseEmitter(stream));
+    }
+
     @Operation(
             summary = "Start guest conversation",
             description = "Generates an assistant response for a guest user without saving conversation data.")
@@ -74,6 +110,20 @@ public class GenAIController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Start guest conversation (streamed)",
+            description = "Streams an assistant response for a guest user as server-sent events without saving conversation data.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream started"),
+            @ApiResponse(responseCode = "400", description = "Invalid request")
+    })
+    @PostMapping(path = "/chat/guest/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamGuestConversation(
+            @RequestBody ChatMessageRequest request) {
+        AssistantMessageStream stream = chatService.streamGuestConversation(request.getMessage());
+        return ResponseEntity.ok(toSseEmitter(stream));
+    }
+
     @Operation(
             summary = "Continue conversation",
             description = "Adds a user message to an existing conversation and returns the assistant's response.")
@@ -97,9 +147,35 @@ public class GenAIController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Continue conversation (streamed)",
+            description = "Adds a user message to an existing conversation and streams the assistant's response as "
+                    + "server-sent events. Both messages are saved once the stream completes.")
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream started"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "404", description = "Conversation not found")
+    })
+    @PostMapping(path = "/chat/{conversationId}/messages/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamContinueConversation(
+            @Parameter(description = "Conversation id", example = "42") @PathVariable long conversationId,
+            @RequestBody ChatMessageRequest request,
+            Authentication authentication) {
+        User user = authHelper.getAuthenticatedUserOrNull(authentication);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        AssistantMessageStream stream = chatService.streamChat(user, request.getMessage(), conversationId);
+        return ResponseEntity.ok(toSseEmitter(stream));
+    }
+
     @Operation(
             summary = "Get conversation",
-            description = "Retrieves a conversation by ID, with its title and a paginated message list ordered by newest first.")
+            description = "Retrieves a conversation by ID, with its title and a paginated message list ordered by newest first. "
+                    + "When a cursor parameter is sent (empty for the first page), keyset pagination is used and the "
+                    + "response carries nextCursor; the total is then only counted if includeTotal is true.")
     @SecurityRequirement(name = "bearerAuth")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Conversation returned"),
@@ -114,6 +190,10 @@ public class GenAIController {
             int page,
             @Parameter(description = "Page size", example = "20") @RequestParam(defaultValue = "20")
             int pageSize,
+            @Parameter(description = "Cursor from the previous page; empty for the first page of a cursor walk")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Also count all messages (cursor mode only)", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeTotal,
             Authentication authentication) {
 
         User user = authHelper.getAuthenticatedUserOrNull(authentication);
@@ -121,6 +201,20 @@ public class GenAIController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
+        if (cursor != null) {
+            CursorPageResult<MessageDto> messages =
+                    chatService.loadConversationAfter(user, conversationId, cursor, pageSize, includeTotal);
+            Conversation conversationEntity = conversationService.findById(conversationId);
+            ConversationDto body =
+                    new ConversationDto(
+                            conversationId,
+                            conversationEntity.getTitle(),
+                            messages.getItems(),
+                            messages.getTotal());
+            body.setNextCursor(messages.getNextCursor());
+            return ResponseEntity.ok(body);
+        }
+
         PageResult<MessageDto> conversation =
                 chatService.loadConversation(user, conversationId, page, pageSize);
         Conversation conversationEntity = conversationService.findById(conversationId);
@@ -135,25 +229,35 @@ public class GenAIController {
 
     @Operation(
             summary = "Get conversations",
-            description = "Returns all conversations for the authenticated user as a paginated list, ordered by most recently updated first.")
+            description = "Returns all conversations for the authenticated user as a paginated list, ordered by most recently updated first. "
+                    + "When a cursor parameter is sent (empty for the first page), keyset pagination is used and the "
+                    + "response carries nextCursor instead of page numbers.")
     @SecurityRequirement(name = "bearerAuth")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Conversations returned"),
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @GetMapping("/chat")
-    public ResponseEntity<PageResult<ConversationDto>> getConversations(
+    public ResponseEntity<?> getConversations(
             Authentication authentication,
             @Parameter(description = "1-based page number", example = "1")
             @RequestParam(defaultValue = "1")
             int page,
             @Parameter(description = "Page size", example = "20") @RequestParam(defaultValue = "20")
-            int pageSize) {
+            int pageSize,
+            @Parameter(description = "Cursor from the previous page; empty for the first page of a cursor walk")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Also count all conversations (cursor mode only)", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         User user = authHelper.getAuthenticatedUserOrNull(authentication);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
+        if (cursor != null) {
+            return ResponseEntity.ok(chatService.loadConversationsAfter(user, cursor, pageSize, includeTotal));
+        }
+
         PageResult<ConversationDto> conversation = chatService.loadConversations(user, page, pageSize);
         return ResponseEntity.ok(conversation);
     }
@@ -229,6 +333,33 @@ public class GenAIController {
         return ResponseEntity.ok(result);
     }
 
+    @Operation(
+            summary = "Generate recipe (streamed)",
+            description = "Generates a recipe like POST /recipes but streams it as server-sent events: a `title` event, "
+                    + "one `ingredient` and one `step` event per line as soon as the model has written it, then a `done` "
+                    + "event with the same body POST /recipes returns. The recipe file and history entry are saved "
+                    + "once the recipe is complete. Sections are only sent once the reply has a title and both section "
+                    + "headings; a refusal or clarification question ends with just an `error` event. An `error` after "
+                    + "sections means the reply was rejected at the end, so clients must discard what they showed.")
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream started"),
+            @ApiResponse(responseCode = "400", description = "Invalid ingredients or request")
+    })
+    @PostMapping(path = "/recipes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamRecipe(
+            @RequestBody RecipeRequest request, Authentication authentication) {
+        User user = authHelper.getAuthenticatedUserOrNull(authentication);
+        Long userId = user != null ? user.getId() : null;
+        Flux<RecipeStreamEvent> events = recipeService.streamRecipe(request, userId, result -> {
+            if (userId != null) {
+                recipeHistoryService.saveGeneratedRecipe(userId, result);
+            }
+        });
+        return ResponseEntity.ok(toSseEmitter(events, GenAIController::sendRecipeEvent, emitter -> {
+        }));
+    }
+
     @Operation(
             summary = "Download recipe file",
             description = "Downloads a recipe file by its id. Requires authentication.")
@@ -293,16 +424,79 @@ public class GenAIController {
             Authentication authentication)
             throws Exception {
         try {
-            String tempImageUrl = imageService.generateFoodImageFromParams(request);
             User user = authHelper.getAuthenticatedUserOrNull(authentication);
             if (user != null) {
-                ImageDto generatedImage = imageService.persistImageForUser(tempImageUrl, user.getId());
+                ImageDto generatedImage = imageService.generateFoodImageForUser(request, user.getId());
                 return ResponseEntity.ok(generatedImage);
             }
-            return ResponseEntity.ok(new ImageDto(0L, tempImageUrl, tempImageUrl, null, null, null));
+            String tempImageUrl = imageService.generateFoodImageFromParams(request);
+            return ResponseEntity.ok(new ImageDto(0L, tempImageUrl, tempImageUrl, null, null, null, List.of()));
         } catch (Exception e) {
             log.error("Error generating food image: {}", e.getMessage(), e);
             throw e;
         }
     }
+
+    private SseEmitter toSseEmitter(AssistantMessageStream stream) {
+        StringBuilder reply = new StringBuilder();
+        return toSseEmitter(
+                stream.tokens(),
+                (emitter, token) -> {
+                    reply.append(token);
+                    sendEvent(emitter, "token", Map.of("token", token));
+                },
+                emitter -> sendEvent(emitter, "done", new AssistantMessageDto(stream.conversationId(), reply.toString())));
+    }
+
+    private static void sendRecipeEvent(SseEmitter emitter, RecipeStreamEvent event) {
+        switch (event.type()) {
+            case TITLE -> sendEvent(emitter, "title", Map.of("title", event.text()));
+            case INGREDIENT -> sendEvent(emitter, "ingredient", Map.of("ingredient", event.text()));
+            case STEP -> sendEvent(emitter, "step", Map.of("step", event.text()));
+            case DONE -> sendEvent(emitter, "done", event.result());
+        }
+    }
+
+    private <T> SseEmitter toSseEmitter(Flux<T> events, BiConsumer<SseEmitter, T> onEvent, Consumer<SseEmitter> onDone) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+
+        Disposable subscription = events.subscribe(
+                event -> onEvent.accept(emitter, event),
+                error -> {
+                    String message = error instanceof InappropriateRequestRefusalException
+                            || error instanceof ProviderBusyException
+                            ? error.getMessage()
+                            : "Internal server error";
+                    if (!(error instanceof UncheckedIOException)) {
+                        log.error("Stream failed: {}", error.getMessage(), error);
+                    }
+                    try {
+                        sendEvent(emitter, "error", Map.of("message", message));
+                        emitter.complete();
+                    } catch (UncheckedIOException e) {
+                        emitter.completeWithError(e.getCause());
+                    }
+                },
+                () -> {
+                    try {
+                        onDone.accept(emitter);
+                        emitter.complete();
+                    } catch (UncheckedIOException e) {
+                        emitter.completeWithError(e.getCause());
+                    }
+                });
+
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(e -> subscription.dispose());
+        return emitter;
+    }
+
+    private static void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            // the client went away, surfacing this cancels the upstream model call
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -7,6 +7,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.ai.chatbot_backend.dto.CursorPageResult;
 import org.ai.chatbot_backend.dto.PageResult;
 import org.ai.chatbot_backend.dto.RecipeHistoryDto;
 import org.ai.chatbot_backend.model.RecipeHistory;
@@ -34,7 +35,9 @@ public class RecipeHistoryController {
 
     @Operation(
             summary = "Get recipe history",
-            description = "Returns paged recipe history entries for the authenticated user."
+            description = "Returns paged recipe history entries for the authenticated user. "
+                    + "When a cursor parameter is sent (empty for the first page), keyset pagination is used "
+                    + "and the response carries nextCursor instead of page numbers."
     )
     @SecurityRequirement(name = "bearerAuth")
     @ApiResponses(value = {
@@ -46,13 +49,22 @@ public class RecipeHistoryController {
             @Parameter(description = "1-based page number", example = "1")
             @RequestParam(defaultValue = "1") int page,
             @Parameter(description = "Page size", example = "10")
-            @RequestParam(defaultValue = "10") int pageSize) {
+            @RequestParam(defaultValue = "10") int pageSize,
+            @Parameter(description = "Cursor from the previous page; empty for the first page of a cursor walk")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Also count all entries (cursor mode only)", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         User user = authHelper.getAuthenticatedUserOrNull(authentication);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
         }
         if (page < 1) page = 1;
         if (pageSize < 1) pageSize = 10;
+        if (cursor != null) {
+            CursorPageResult<RecipeHistoryDto> cursorPage =
+                    recipeHistoryService.getHistoryForUserAfter(user.getId(), cursor, pageSize, includeTotal);
+            return ResponseEntity.ok(cursorPage);
+        }
         PageResult<RecipeHistoryDto> pageDto = recipeHistoryService.getHistoryForUserPaged(user.getId(), page, pageSize);
         return ResponseEntity.ok(pageDto);
     }
@@ -7,19 +7,24 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.ai.chatbot_backend.dto.CursorPageResult;
 import org.ai.chatbot_backend.dto.ImageContent;
 import org.ai.chatbot_backend.dto.ImageDto;
 import org.ai.chatbot_backend.dto.PageResult;
 import org.ai.chatbot_backend.model.User;
 import org.ai.chatbot_backend.security.AuthHelper;
 import org.ai.chatbot_backend.service.interfaces.IImageService;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.net.URI;
 
 @RestController
 @RequiredArgsConstructor
@@ -30,9 +35,14 @@ public class UserGalleryController {
     private final IImageService imageService;
     private final AuthHelper authHelper;
 
+    @Value("${app.images.download.redirect:false}")
+    private boolean redirectDownloads;
+
     @Operation(
             summary = "Get image gallery",
-            description = "Returns paged gallery images for the authenticated user."
+            description = "Returns paged gallery images for the authenticated user. "
+                    + "When a cursor parameter is sent (empty for the first page), keyset pagination is used "
+                    + "and the response carries nextCursor instead of page numbers."
     )
     @SecurityRequirement(name = "bearerAuth")
     @ApiResponses(value = {
@@ -40,46 +50,91 @@ public class UserGalleryController {
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @GetMapping("/me/images")
-    public ResponseEntity<PageResult<ImageDto>> getMyImages(Authentication authentication,
+    public ResponseEntity<?> getMyImages(Authentication authentication,
                                         @Parameter(description = "1-based page number", example = "1")
                                         @RequestParam(defaultValue = "1") int page,
                                         @Parameter(description = "Page size", example = "18")
-                                        @RequestParam(defaultValue = "18") int pageSize) {
+                                        @RequestParam(defaultValue = "18") int pageSize,
+                                        @Parameter(description = "Cursor from the previous page; empty for the first page of a cursor walk")
+                                        @RequestParam(required = false) String cursor,
+                                        @Parameter(description = "Also count all images (cursor mode only)", example = "false")
+                                        @RequestParam(defaultValue = "false") boolean includeTotal) {
 
         User user = authHelper.getAuthenticatedUserOrNull(authentication);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+        if (cursor != null) {
+            CursorPageResult<ImageDto> cursorPage = imageService.getImagesAfter(user, cursor, pageSize, includeTotal);
+            return ResponseEntity.ok(cursorPage);
+        }
         PageResult<ImageDto> pageDto = imageService.getImages(user, page, pageSize);
         return ResponseEntity.ok(pageDto);
     }
 
     @Operation(
             summary = "Download image",
-            description = "Downloads an image by id from the authenticated user's gallery."
+            description = "Downloads an image by id from the authenticated user's gallery. Supports a single "
+                    + "byte range (Range) and conditional requests (If-None-Match). When redirect downloads are "
+                    + "enabled, answers with a redirect to a short-lived signed storage URL instead."
     )
     @SecurityRequirement(name = "bearerAuth")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Image downloaded"),
+            @ApiResponse(responseCode = "206", description = "Requested byte range returned"),
+            @ApiResponse(responseCode = "302", description = "Redirect to a signed storage URL"),
+            @ApiResponse(responseCode = "304", description = "Image not modified"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "404", description = "Image not found"),
+            @ApiResponse(responseCode = "416", description = "Range not satisfiable"),
             @ApiResponse(responseCode = "500", description = "Download failed")
     })
     @GetMapping("/me/images/{imageId}/download")
-    public ResponseEntity<Resource> downloadImage(
+    public ResponseEntity<StreamingResponseBody> downloadImage(
             Authentication authentication,
             @Parameter(description = "Image id", example = "17")
-            @PathVariable Long imageId) {
+            @PathVariable Long imageId,
+            @Parameter(description = "Single byte range, e.g. bytes=0-1023")
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @Parameter(description = "ETag of a cached copy")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         User user = authHelper.getAuthenticatedUserOrNull(authentication);
         if (user == null) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (redirectDownloads) {
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(URI.create(imageService.signedDownloadUrl(imageId, user)))
+                    .build();
         }
-        ImageContent content = imageService.loadImageContentForUser(imageId, user);
-        MediaType mediaType = MediaType.parseMediaType(content.contentType());
-        return ResponseEntity.ok()
+
+        ImageContent content = imageService.loadImageContentForUser(imageId, user, range, ifNoneMatch);
+        if (content.isNotModified()) {
+            ResponseEntity.HeadersBuilder<?> notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED);
+            if (content.eTag() != null) {
+                notModified.eTag(content.eTag());
+            }
+            return notModified.build();
+        }
+
+        ResponseEntity.BodyBuilder response = content.isPartial()
+                ? ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).header(HttpHeaders.CONTENT_RANGE, content.contentRange())
+                : ResponseEntity.ok();
+        response.header(HttpHeaders.ACCEPT_RANGES, "bytes")
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + content.filename() + "\"")
-                .contentType(mediaType)
-                .body(content.resource());
+                .contentType(MediaType.parseMediaType(content.contentType()));
+        if (content.eTag() != null) {
+            response.eTag(content.eTag());
+        }
+        if (content.contentLength() != null) {
+            response.contentLength(content.contentLength());
+        }
+        // not a Resource body: Spring would try to apply the Range header again to what R2 already cut
+        return response.body(out -> {
+            try (InputStream in = content.resource().getInputStream()) {
+                in.transferTo(out);
+            }
+        });
     }
 
     @Operation(
@@ -0,0 +1,5 @@
+package org.ai.chatbot_backend.dto;
+
+import reactor.core.publisher.Flux;
+
+public record AssistantMessageStream(Long conversationId, Flux<String> tokens) {}
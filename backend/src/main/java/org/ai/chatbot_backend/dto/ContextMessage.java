@@ -0,0 +1,6 @@
+package org.ai.chatbot_backend.dto;
+
+import org.ai.chatbot_backend.enums.ConversationRole;
+
+public record ContextMessage(ConversationRole role, String content) {
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -35,6 +36,24 @@ public class ConversationDto {
     )
     private Long total;
 
+    @Schema(
+            description = "Last update of the conversation, only set in conversation lists",
+            example = "2025-01-15T10:30:00"
+    )
+    private LocalDateTime updatedAt;
+
+    @Schema(
+            description = "Start of the newest message, only set in conversation lists",
+            example = "Here's a delicious Spaghetti Carbonara recipe..."
+    )
+    private String lastMessagePreview;
+
+    @Schema(
+            description = "Opaque cursor for the next page of messages, only set in cursor mode",
+            example = "MjAyNi0wNS0wN1QxMDozMDowMHw0Mg"
+    )
+    private String nextCursor;
+
     public ConversationDto(long conversationId, String title, List<MessageDto> messages) {
         this.conversationId = conversationId;
         this.title = title;
@@ -48,4 +67,13 @@ public class ConversationDto {
         this.messages = messages;
         this.total = total;
     }
+
+    public static ConversationDto listItem(long conversationId, String title, LocalDateTime updatedAt, String lastMessagePreview) {
+        ConversationDto dto = new ConversationDto();
+        dto.conversationId = conversationId;
+        dto.title = title;
+        dto.updatedAt = updatedAt;
+        dto.lastMessagePreview = lastMessagePreview;
+        return dto;
+    }
 }
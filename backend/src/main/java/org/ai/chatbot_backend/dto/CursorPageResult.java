@@ -0,0 +1,34 @@
+package org.ai.chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Cursor paginated result set")
+public class CursorPageResult<T> {
+    @Schema(
+            description = "List of items",
+            example = "[]"
+    )
+    private List<T> items;
+
+    @Schema(
+            description = "Opaque cursor for the next page, absent on the last page",
+            example = "MjAyNi0wNS0wN1QxMDozMDowMHw0Mg"
+    )
+    private String nextCursor;
+
+    @Schema(
+            description = "Total number of items available, only present when requested",
+            example = "42"
+    )
+    private Long total;
+}
@@ -0,0 +1,8 @@
+package org.ai.chatbot_backend.dto;
+
+/**
+ * Result of an image generation call: the decoded image when the provider returned it inline, otherwise
+ * the provider's URL.
+ */
+public record GeneratedImage(byte[] bytes, String url) {
+}
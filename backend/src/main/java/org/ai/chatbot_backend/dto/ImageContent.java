@@ -2,4 +2,22 @@ package org.ai.chatbot_backend.dto;
 
 import org.springframework.core.io.Resource;
 
-public record ImageContent(Resource resource, String filename, String contentType) {}
+/**
+ * A stored image as returned by R2. {@code contentRange} is set for a partial (206) response; a null
+ * resource means the client's copy is current (304).
+ */
+public record ImageContent(Resource resource, String filename, String contentType, Long contentLength,
+                           String eTag, String contentRange) {
+
+    public static ImageContent notModified(String filename, String eTag) {
+        return new ImageContent(null, filename, null, null, eTag, null);
+    }
+
+    public boolean isNotModified() {
+        return resource == null;
+    }
+
+    public boolean isPartial() {
+        return contentRange != null;
+    }
+}
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Getter
 @Setter
@@ -50,5 +51,8 @@ public class ImageDto {
             example = "2026-05-07T10:30:00"
     )
     private LocalDateTime createdAt;
+
+    @Schema(description = "Downscaled copies of the image ordered by width, empty when none were generated")
+    private List<ImageRenditionDto> renditions;
 }
 
@@ -0,0 +1,11 @@
+package org.ai.chatbot_backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Downscaled copy of an image, for srcset")
+public record ImageRenditionDto(
+        @Schema(description = "Width of the rendition in pixels", example = "300")
+        int width,
+        @Schema(description = "Signed URL of the rendition", example = "https://cdn.example.com/images/pasta-carbonara-300.webp")
+        String url) {
+}
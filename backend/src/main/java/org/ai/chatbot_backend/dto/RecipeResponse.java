@@ -2,6 +2,7 @@ package org.ai.chatbot_backend.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
@@ -9,13 +10,16 @@ import lombok.Data;
 @JsonIgnoreProperties(ignoreUnknown = true)
 @Schema(description = "Generated recipe response from AI")
 public class RecipeResponse {
+    @JsonProperty(required = true)
+    @JsonPropertyDescription("The recipe title")
     @Schema(
             description = "Recipe title",
             example = "Spaghetti Carbonara"
     )
     private String title;
 
-    @JsonProperty("recipe_markdown")
+    @JsonProperty(value = "recipe_markdown", required = true)
+    @JsonPropertyDescription("The full recipe as markdown: ### title, #### Ingredients: list, #### Instructions: numbered steps")
     @Schema(
             description = "Recipe content in markdown format",
             example = "# Spaghetti Carbonara\n\n## Ingredients\n- 400g spaghetti\n- 200g guanciale"
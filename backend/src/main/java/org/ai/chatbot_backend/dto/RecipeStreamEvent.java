@@ -0,0 +1,26 @@
+package org.ai.chatbot_backend.dto;
+
+/**
+ * One event of a streamed recipe: the title, an ingredient or a step as soon as its line is complete,
+ * then {@code DONE} with the stored result.
+ */
+public record RecipeStreamEvent(Type type, String text, CreateRecipeResult result) {
+
+    public enum Type { TITLE, INGREDIENT, STEP, DONE }
+
+    public static RecipeStreamEvent title(String title) {
+        return new RecipeStreamEvent(Type.TITLE, title, null);
+    }
+
+    public static RecipeStreamEvent ingredient(String ingredient) {
+        return new RecipeStreamEvent(Type.INGREDIENT, ingredient, null);
+    }
+
+    public static RecipeStreamEvent step(String step) {
+        return new RecipeStreamEvent(Type.STEP, step, null);
+    }
+
+    public static RecipeStreamEvent done(CreateRecipeResult result) {
+        return new RecipeStreamEvent(Type.DONE, null, result);
+    }
+}
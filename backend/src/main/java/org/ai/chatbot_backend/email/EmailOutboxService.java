@@ -0,0 +1,243 @@
+package org.ai.chatbot_backend.email;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.ai.chatbot_backend.enums.EmailStatus;
+import org.ai.chatbot_backend.model.OutboundEmail;
+import org.ai.chatbot_backend.repository.OutboundEmailRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbound mail goes through the email_outbox table: the row is written in the caller's transaction and
+ * handed to a bounded in-memory queue after commit. Worker threads send in batches, one SMTP connection per
+ * batch, and failed sends are retried with exponential backoff. A poller picks up rows the queue missed
+ * (queue full, restart, retry due).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxService implements IEmailOutboxService {
+    private static final int BATCH_SIZE = 20;
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final List<EmailStatus> CLAIMABLE = List.of(EmailStatus.PENDING, EmailStatus.SENDING);
+
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final JavaMailSender mailSender;
+
+    @Value("${spring.mail.username}")
+    private String sender;
+
+    @Value("${app.mail.workers:2}")
+    private int workers;
+
+    @Value("${app.mail.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.mail.poll-interval:10s}")
+    private Duration pollInterval;
+
+    @Value("${app.mail.send-lease:5m}")
+    private Duration sendLease;
+
+    @Value("${app.mail.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.mail.retry.initial-backoff:30s}")
+    private Duration initialBackoff;
+
+    @Value("${app.mail.retry.max-backoff:30m}")
+    private Duration maxBackoff;
+
+    private BlockingQueue<Long> queue;
+    private ExecutorService workerPool;
+    private ScheduledExecutorService poller;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        workerPool = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name("mail-worker-", 0).factory());
+        for (int i = 0; i < workers; i++) {
+            workerPool.submit(this::work);
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("mail-outbox-poller").factory());
+        poller.scheduleWithFixedDelay(this::pollDue, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        poller.shutdownNow();
+        workerPool.shutdownNow();
+    }
+
+    @Override
+    public void enqueue(EmailDetails details) {
+        LocalDateTime now = LocalDateTime.now();
+        OutboundEmail email = outboundEmailRepository.save(OutboundEmail.builder()
+                .recipient(details.getRecipient())
+                .subject(details.getSubject())
+                .body(details.getMsgBody())
+                .status(EmailStatus.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+
+        long id = email.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // the row must be visible to the worker before it looks for it
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(id);
+                }
+            });
+        } else {
+            offer(id);
+        }
+    }
+
+    private void offer(long id) {
+        if (!queue.offer(id)) {
+            log.warn("Mail queue full, email {} left for the outbox poller", id);
+        }
+    }
+
+    void pollDue() {
+        try {
+            int room = queue.remainingCapacity();
+            if (room == 0) {
+                return;
+            }
+            outboundEmailRepository.findDueIds(CLAIMABLE, LocalDateTime.now(), PageRequest.of(0, room))
+                    .forEach(this::offer);
+        } catch (Exception e) {
+            log.warn("Polling the email outbox failed", e);
+        }
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<Long> ids = new ArrayList<>();
+                ids.add(queue.take());
+                queue.drainTo(ids, BATCH_SIZE - 1);
+                sendBatch(ids);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Mail worker failed", e);
+            }
+        }
+    }
+
+    void sendBatch(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        // the poller may queue an id that is already queued, only the first claim wins
+        List<Long> claimed = ids.stream()
+                .distinct()
+                .filter(id -> outboundEmailRepository.claim(id, EmailStatus.SENDING, CLAIMABLE, now, now.plus(sendLease)) == 1)
+                .toList();
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        List<OutboundEmail> emails = outboundEmailRepository.findAllById(claimed);
+
+        // failures are reported per SimpleMailMessage, which compares by content, so identical messages
+        // go out in separate send calls and each failure is tied back to its outbox row
+        Map<Long, Exception> failures = new HashMap<>();
+        List<OutboundEmail> remaining = emails;
+        while (!remaining.isEmpty()) {
+            Map<SimpleMailMessage, OutboundEmail> round = new LinkedHashMap<>();
+            List<OutboundEmail> duplicates = new ArrayList<>();
+            for (OutboundEmail email : remaining) {
+                if (round.putIfAbsent(toMessage(email), email) != null) {
+                    duplicates.add(email);
+                }
+            }
+            send(round, failures);
+            remaining = duplicates;
+        }
+
+        LocalDateTime done = LocalDateTime.now();
+        for (OutboundEmail email : emails) {
+            email.setAttempts(email.getAttempts() + 1);
+            Exception failure = failures.get(email.getId());
+            if (failure == null) {
+                email.setStatus(EmailStatus.SENT);
+                email.setSentAt(done);
+                email.setLastError(null);
+            } else {
+                scheduleRetry(email, failure, done);
+            }
+        }
+        outboundEmailRepository.saveAll(emails);
+    }
+
+    private void send(Map<SimpleMailMessage, OutboundEmail> messages, Map<Long, Exception> failures) {
+        try {
+            // a single send call keeps one SMTP connection open for the whole batch
+            mailSender.send(messages.keySet().toArray(SimpleMailMessage[]::new));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            messages.forEach((message, email) -> {
+                Exception failure = failed.isEmpty() ? e : failed.get(message);
+                if (failure != null) {
+                    failures.put(email.getId(), failure);
+                }
+            });
+        } catch (MailException e) {
+            messages.values().forEach(email -> failures.put(email.getId(), e));
+        }
+    }
+
+    private void scheduleRetry(OutboundEmail email, Exception failure, LocalDateTime now) {
+        String error = String.valueOf(failure.getMessage());
+        email.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (email.getAttempts() >= maxAttempts) {
+            email.setStatus(EmailStatus.FAILED);
+            log.error("Giving up on email {} to {} after {} attempts", email.getId(), email.getRecipient(), email.getAttempts(), failure);
+            return;
+        }
+        email.setStatus(EmailStatus.PENDING);
+        email.setNextAttemptAt(now.plus(backoff(email.getAttempts())));
+        log.warn("Sending email {} failed (attempt {}), retrying at {}", email.getId(), email.getAttempts(), email.getNextAttemptAt());
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private SimpleMailMessage toMessage(OutboundEmail email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(sender);
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+        return message;
+    }
+}
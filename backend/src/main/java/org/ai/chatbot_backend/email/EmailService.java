@@ -4,8 +4,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.ai.chatbot_backend.model.PasswordResetToken;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -13,10 +11,7 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class EmailService implements IEmailService {
 
-    private final JavaMailSender mailSender;
-
-    @Value("${spring.mail.username}")
-    private String sender;
+    private final IEmailOutboxService emailOutboxService;
 
     @Value("${app.backend-base-url}")
     private String BACKEND_BASE_URL;
@@ -24,15 +19,10 @@ public class EmailService implements IEmailService {
     @Override
     public boolean sendSimpleMail(EmailDetails details) {
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(sender);
-            message.setTo(details.getRecipient());
-            message.setSubject(details.getSubject());
-            message.setText(details.getMsgBody());
-            mailSender.send(message);
+            emailOutboxService.enqueue(details);
             return true;
         } catch (Exception e) {
-            log.error("Failed to send email to {}", details.getRecipient(), e);
+            log.error("Failed to queue email to {}", details.getRecipient(), e);
             return false;
         }
     }
@@ -42,16 +32,13 @@ public class EmailService implements IEmailService {
         try {
             String url = BACKEND_BASE_URL + "/auth/password-reset/verify?token=" + passwordResetToken.getToken();
 
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(sender);
-            message.setTo(details.getRecipient());
-            message.setSubject(details.getSubject());
-            message.setText(details.getMsgBody() + "\n\n" + url);
-
-            mailSender.send(message);
+            emailOutboxService.enqueue(new EmailDetails(
+                    details.getRecipient(),
+                    details.getMsgBody() + "\n\n" + url,
+                    details.getSubject()));
             return true;
         } catch (Exception e) {
-            log.error("Failed to send password reset email to {}", details.getRecipient(), e);
+            log.error("Failed to queue password reset email to {}", details.getRecipient(), e);
             return false;
         }
     }
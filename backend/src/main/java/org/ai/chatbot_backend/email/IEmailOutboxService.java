@@ -0,0 +1,6 @@
+package org.ai.chatbot_backend.email;
+
+public interface IEmailOutboxService {
+
+    void enqueue(EmailDetails details);
+}
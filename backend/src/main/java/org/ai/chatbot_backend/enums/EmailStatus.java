@@ -0,0 +1,8 @@
+package org.ai.chatbot_backend.enums;
+
+public enum EmailStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package org.ai.chatbot_backend.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
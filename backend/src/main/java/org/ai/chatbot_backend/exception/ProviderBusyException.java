@@ -0,0 +1,7 @@
+package org.ai.chatbot_backend.exception;
+
+public class ProviderBusyException extends RuntimeException {
+    public ProviderBusyException(String message) {
+        super(message);
+    }
+}
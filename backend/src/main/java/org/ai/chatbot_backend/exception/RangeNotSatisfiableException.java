@@ -0,0 +1,7 @@
+package org.ai.chatbot_backend.exception;
+
+public class RangeNotSatisfiableException extends RuntimeException {
+    public RangeNotSatisfiableException(String message) {
+        super(message);
+    }
+}
@@ -11,7 +11,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "conversations")
+@Table(name = "conversations", indexes = {
+        @Index(name = "idx_conversations_user_updated", columnList = "user_id, updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,6 +29,12 @@ public class Conversation {
 
     private String title;
 
+    @Column(columnDefinition = "TEXT")
+    private String summary;
+
+    // id of the newest message folded into the summary
+    private Long summarizedThroughMessageId;
+
     @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Message> messages = new ArrayList<>();
 
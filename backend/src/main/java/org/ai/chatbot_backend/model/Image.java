@@ -7,9 +7,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Entity
-@Table(name = "images")
+@Table(name = "images", indexes = {
+        @Index(name = "idx_images_user_created", columnList = "user_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,5 +30,10 @@ public class Image {
     private String filename;
     private String thumbnailFilename;
 
+    // null until renditions were generated, the backfill job looks for those rows
+    @Convert(converter = ImageRenditionsConverter.class)
+    @Column(length = 1024)
+    private List<ImageRendition> renditions;
+
     private LocalDateTime createdAt;
 }
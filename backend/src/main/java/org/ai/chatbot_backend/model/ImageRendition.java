@@ -0,0 +1,7 @@
+package org.ai.chatbot_backend.model;
+
+/**
+ * A downscaled copy of an image in R2. {@code width} is the rendition's real pixel width, for srcset.
+ */
+public record ImageRendition(int width, String key) {
+}
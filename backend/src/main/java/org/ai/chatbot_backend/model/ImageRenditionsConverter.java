@@ -0,0 +1,39 @@
+package org.ai.chatbot_backend.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Stores renditions in one column as {@code width:key} pairs separated by commas, so loading an image
+ * needs no extra query. R2 keys are generated by us and never contain either separator.
+ */
+@Converter
+public class ImageRenditionsConverter implements AttributeConverter<List<ImageRendition>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<ImageRendition> renditions) {
+        if (renditions == null || renditions.isEmpty()) {
+            return null;
+        }
+        return renditions.stream()
+                .map(r -> r.width() + ":" + r.key())
+                .collect(Collectors.joining(","));
+    }
+
+    @Override
+    public List<ImageRendition> convertToEntityAttribute(String column) {
+        if (column == null || column.isBlank()) {
+            return null;
+        }
+        return Arrays.stream(column.split(","))
+                .map(pair -> {
+                    int colon = pair.indexOf(':');
+                    return new ImageRendition(Integer.parseInt(pair.substring(0, colon)), pair.substring(colon + 1));
+                })
+                .toList();
+    }
+}
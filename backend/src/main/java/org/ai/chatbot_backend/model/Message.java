@@ -10,7 +10,9 @@ import org.ai.chatbot_backend.enums.ConversationRole;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        @Index(name = "idx_messages_conversation_timestamp", columnList = "conversation_id, timestamp, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
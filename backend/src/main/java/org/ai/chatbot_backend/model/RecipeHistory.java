@@ -13,7 +13,9 @@ import org.ai.chatbot_backend.dto.RecipeHistoryDto;
 
 @Entity
 @Data
-@Table(name = "recipe_history")
+@Table(name = "recipe_history", indexes = {
+        @Index(name = "idx_recipe_history_user_created", columnList = "user_id, created_at, id")
+})
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
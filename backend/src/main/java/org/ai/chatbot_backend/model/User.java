@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
 import org.ai.chatbot_backend.enums.UserRole;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -44,6 +45,12 @@ public class User implements UserDetails {
     @Column(nullable=false)
     private UserRole role;
 
+    // bumped on password change, tokens carrying an older version are rejected
+    @JsonIgnore
+    @Column(nullable=false)
+    @ColumnDefault("0")
+    private int tokenVersion;
+
     @Override
     @JsonIgnore
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -1,12 +1,68 @@
 package org.ai.chatbot_backend.repository;
 
 import org.ai.chatbot_backend.model.Conversation;
+import org.ai.chatbot_backend.repository.projection.ConversationListItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface ConversationRepository extends JpaRepository<Conversation, Long> {
 
     Page<Conversation> findByUserIdOrderByUpdatedAtDesc(Long userId,
                                                         Pageable pageable);
+
+    String LIST_ITEM_SELECT = """
+            SELECT c.id AS id, c.title AS title, c.updatedAt AS updatedAt,
+                   (SELECT SUBSTRING(m.content, 1, :previewLength) FROM Message m
+                    WHERE m.id = (SELECT MAX(m2.id) FROM Message m2 WHERE m2.conversation = c)) AS lastMessagePreview
+            FROM Conversation c
+            WHERE c.user.id = :userId
+            """;
+
+    /**
+     * Sidebar listing: one query for the page (with a preview of the newest message) and one for the count,
+     * without loading any message entities.
+     */
+    @Query(value = LIST_ITEM_SELECT + " ORDER BY c.updatedAt DESC, c.id DESC",
+            countQuery = "SELECT COUNT(c) FROM Conversation c WHERE c.user.id = :userId")
+    Page<ConversationListItem> findListItemsByUserId(@Param("userId") Long userId,
+                                                     @Param("previewLength") int previewLength,
+                                                     Pageable pageable);
+
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET c.title = :title WHERE c.id = :id AND c.title IS NULL")
+    int setTitleIfMissing(@Param("id") Long id, @Param("title") String title);
+
+    @Modifying
+    @Query("""
+            UPDATE Conversation c SET c.summary = :summary, c.summarizedThroughMessageId = :throughId
+            WHERE c.id = :id AND COALESCE(c.summarizedThroughMessageId, 0L) = :expectedThroughId
+            """)
+    int updateSummaryIfUnchanged(@Param("id") Long id,
+                                 @Param("summary") String summary,
+                                 @Param("throughId") Long throughId,
+                                 @Param("expectedThroughId") Long expectedThroughId);
+
+    @Query(LIST_ITEM_SELECT + " ORDER BY c.updatedAt DESC, c.id DESC")
+    List<ConversationListItem> findFirstListItems(@Param("userId") Long userId,
+                                                  @Param("previewLength") int previewLength,
+                                                  Pageable pageable);
+
+    @Query(LIST_ITEM_SELECT + """
+              AND (c.updatedAt < :updatedAt OR (c.updatedAt = :updatedAt AND c.id < :id))
+            ORDER BY c.updatedAt DESC, c.id DESC
+            """)
+    List<ConversationListItem> findListItemsAfter(@Param("userId") Long userId,
+                                                  @Param("previewLength") int previewLength,
+                                                  @Param("updatedAt") LocalDateTime updatedAt,
+                                                  @Param("id") long id,
+                                                  Pageable pageable);
 }
@@ -4,8 +4,31 @@ import org.ai.chatbot_backend.model.Image;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface ImageRepository extends JpaRepository<Image, Long> {
     Page<Image> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
-}
 
+    long countByUserId(Long userId);
+
+    @Query("SELECT i FROM Image i WHERE i.user.id = :userId ORDER BY i.createdAt DESC, i.id DESC")
+    List<Image> findFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("""
+            SELECT i FROM Image i
+            WHERE i.user.id = :userId
+              AND (i.createdAt < :createdAt OR (i.createdAt = :createdAt AND i.id < :id))
+            ORDER BY i.createdAt DESC, i.id DESC
+            """)
+    List<Image> findPageAfter(@Param("userId") Long userId,
+                              @Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") long id,
+                              Pageable pageable);
+
+    @Query("SELECT i.id FROM Image i WHERE i.renditions IS NULL AND i.id > :afterId ORDER BY i.id")
+    List<Long> findIdsWithoutRenditions(@Param("afterId") long afterId, Pageable pageable);
+}
@@ -5,11 +5,36 @@ import org.ai.chatbot_backend.enums.ConversationRole;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface MessageRepository extends JpaRepository<Message,Long> {
     List<Message> findByRole(ConversationRole role);
 
     Page<Message> findByConversationIdOrderByTimestampDesc(Long conversationId, Pageable pageable);
+
+    List<Message> findByConversationIdAndIdGreaterThanOrderByIdDesc(Long conversationId, Long id, Pageable pageable);
+
+    List<Message> findByConversationIdAndIdGreaterThanOrderByIdAsc(Long conversationId, Long id, Pageable pageable);
+
+    long countByConversationIdAndIdGreaterThan(Long conversationId, Long id);
+
+    long countByConversationId(Long conversationId);
+
+    @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId ORDER BY m.timestamp DESC, m.id DESC")
+    List<Message> findFirstPage(@Param("conversationId") Long conversationId, Pageable pageable);
+
+    @Query("""
+            SELECT m FROM Message m
+            WHERE m.conversation.id = :conversationId
+              AND (m.timestamp < :timestamp OR (m.timestamp = :timestamp AND m.id < :id))
+            ORDER BY m.timestamp DESC, m.id DESC
+            """)
+    List<Message> findPageAfter(@Param("conversationId") Long conversationId,
+                                @Param("timestamp") LocalDateTime timestamp,
+                                @Param("id") long id,
+                                Pageable pageable);
 }
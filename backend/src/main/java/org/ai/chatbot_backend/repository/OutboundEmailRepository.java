@@ -0,0 +1,42 @@
+package org.ai.chatbot_backend.repository;
+
+import org.ai.chatbot_backend.enums.EmailStatus;
+import org.ai.chatbot_backend.model.OutboundEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    @Query("""
+            SELECT e.id FROM OutboundEmail e
+            WHERE e.status IN :statuses AND e.nextAttemptAt <= :now
+            ORDER BY e.nextAttemptAt, e.id
+            """)
+    List<Long> findDueIds(@Param("statuses") Collection<EmailStatus> statuses,
+                          @Param("now") LocalDateTime now,
+                          Pageable pageable);
+
+    /**
+     * Takes a due email for sending. Only one worker (on any node) wins; an expired SENDING lease means the
+     * previous sender died mid-send and the email can be taken again.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE OutboundEmail e SET e.status = :sending, e.nextAttemptAt = :leaseUntil
+            WHERE e.id = :id AND e.status IN :claimable AND e.nextAttemptAt <= :now
+            """)
+    int claim(@Param("id") Long id,
+              @Param("sending") EmailStatus sending,
+              @Param("claimable") Collection<EmailStatus> claimable,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+}
@@ -1,13 +1,34 @@
 package org.ai.chatbot_backend.repository;
 
 import org.ai.chatbot_backend.model.RecipeHistory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface RecipeHistoryRepository extends JpaRepository<RecipeHistory, Long> {
     List<RecipeHistory> findByUser_IdOrderByCreatedAtDesc(Long userId);
+    Page<RecipeHistory> findByUser_IdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+    long countByUser_Id(Long userId);
     void deleteByUser_IdAndId(Long userId, Long entryId);
     boolean existsByUser_IdAndId(Long userId, Long entryId);
     boolean existsByRecipeFile_Id(Long fileId);
+
+    @Query("SELECT h FROM RecipeHistory h WHERE h.user.id = :userId ORDER BY h.createdAt DESC, h.id DESC")
+    List<RecipeHistory> findFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("""
+            SELECT h FROM RecipeHistory h
+            WHERE h.user.id = :userId
+              AND (h.createdAt < :createdAt OR (h.createdAt = :createdAt AND h.id < :id))
+            ORDER BY h.createdAt DESC, h.id DESC
+            """)
+    List<RecipeHistory> findPageAfter(@Param("userId") Long userId,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") long id,
+                                      Pageable pageable);
 }
@@ -0,0 +1,13 @@
+package org.ai.chatbot_backend.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface ConversationListItem {
+    Long getId();
+
+    String getTitle();
+
+    LocalDateTime getUpdatedAt();
+
+    String getLastMessagePreview();
+}
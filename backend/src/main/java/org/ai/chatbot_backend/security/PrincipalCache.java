@@ -0,0 +1,86 @@
+package org.ai.chatbot_backend.security;
+
+import lombok.RequiredArgsConstructor;
+import org.ai.chatbot_backend.config.CacheNames;
+import org.ai.chatbot_backend.enums.UserRole;
+import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.repository.UserRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short lived cache of authenticated principals keyed by email, and of token versions keyed by user id,
+ * so a burst of requests with the same token does not query the users table each time. Entries must be
+ * evicted when credentials change.
+ * <p>
+ * Only an immutable snapshot is cached and every load builds a new {@link User} from it, so no entity is
+ * shared between requests. The principal carries no password; services that need the full user load it.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalCache {
+
+    private final UserDetailsService userDetailsService;
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    private record Snapshot(long id, String email, String name, UserRole role, int tokenVersion) {
+
+        static Snapshot of(User user) {
+            return new Snapshot(user.getId(), user.getEmail(), user.getName(), user.getRole(), user.getTokenVersion());
+        }
+
+        User toUser() {
+            return User.builder()
+                    .id(id)
+                    .email(email)
+                    .name(name)
+                    .role(role)
+                    .tokenVersion(tokenVersion)
+                    .build();
+        }
+    }
+
+    public UserDetails load(String email) {
+        String key = normalize(email);
+        Cache cache = cacheManager.getCache(CacheNames.PRINCIPALS);
+        Snapshot cached = cache.get(key, Snapshot.class);
+        if (cached != null) {
+            return cached.toUser();
+        }
+        UserDetails loaded = userDetailsService.loadUserByUsername(key);
+        if (!(loaded instanceof User user)) {
+            return loaded;
+        }
+        Snapshot snapshot = Snapshot.of(user);
+        cache.put(key, snapshot);
+        return snapshot.toUser();
+    }
+
+    public int tokenVersion(long userId) {
+        Cache cache = cacheManager.getCache(CacheNames.TOKEN_VERSIONS);
+        Integer cached = cache.get(userId, Integer.class);
+        if (cached != null) {
+            return cached;
+        }
+        int version = userRepository.findTokenVersionById(userId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found."));
+        cache.put(userId, version);
+        return version;
+    }
+
+    public void evict(User user) {
+        if (user.getEmail() != null) {
+            cacheManager.getCache(CacheNames.PRINCIPALS).evict(normalize(user.getEmail()));
+        }
+        cacheManager.getCache(CacheNames.TOKEN_VERSIONS).evict(user.getId());
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase();
+    }
+}
@@ -1,28 +1,47 @@
 package org.ai.chatbot_backend.service.implementations;
 
 import com.openai.errors.OpenAIException;
+import com.openai.errors.RateLimitException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.ai.chatbot_backend.concurrency.Bulkhead;
+import org.ai.chatbot_backend.config.CacheNames;
 import org.ai.chatbot_backend.dto.AssistantMessageDto;
+import org.ai.chatbot_backend.dto.AssistantMessageStream;
 import org.ai.chatbot_backend.dto.ConversationDto;
+import org.ai.chatbot_backend.dto.CursorPageResult;
 import org.ai.chatbot_backend.dto.MessageDto;
 import org.ai.chatbot_backend.dto.PageResult;
 import org.ai.chatbot_backend.exception.InappropriateRequestRefusalException;
+import org.ai.chatbot_backend.exception.ProviderBusyException;
 import org.ai.chatbot_backend.exception.ResourceNotFoundException;
 import org.ai.chatbot_backend.model.Conversation;
 import org.ai.chatbot_backend.model.Message;
 import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.repository.projection.ConversationListItem;
 import org.ai.chatbot_backend.service.interfaces.IChatService;
+import org.ai.chatbot_backend.util.CursorCodec;
+import org.ai.chatbot_backend.util.PromptNormalizer;
+import org.ai.chatbot_backend.util.RecipeParser;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.Comparator;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -32,15 +51,25 @@ public class ChatService implements IChatService {
     private final RecipeFileService recipeFileService;
     private final ConversationService conversationService;
     private final MessageService messageService;
-
-    private static final Pattern RECIPE_PATTERN = Pattern.compile(
-            "(?s)^###\\s+.+?\\R+####\\s+Ingredients:.*?####\\s+Instructions:",
-            Pattern.CASE_INSENSITIVE
-    );
+    private final ConversationContextService conversationContextService;
+    private final ConversationSummaryService conversationSummaryService;
+    private final ExecutorService modelCallExecutor;
+    private final Bulkhead chatBulkhead;
+    private final CacheManager cacheManager;
+    private final FoodTopicClassifier foodTopicClassifier;
+
+    // also what ConversationContextService strips from stored replies before they go back to the model
+    static final String DOWNLOAD_LINK_PREFIX = "\n\nYou can download this recipe here: ";
+    private static final String OFF_TOPIC_MESSAGE = "Sorry, I can only talk about food.";
+    private static final String PROVIDER_REFUSAL_MESSAGE = "Sorry, I can't help with that request.";
+    private static final String PROVIDER_BUSY_MESSAGE = "The assistant is busy right now, please try again in a moment.";
 
     @Value("${app.backend-base-url}")
     private String backendBaseUrl;
 
+    @Value("${app.cache.guest-chat.enabled:true}")
+    private boolean guestChatCacheEnabled;
+
   @Override
   public String systemPrompt() {
     return """
@@ -80,29 +109,7 @@ public class ChatService implements IChatService {
 
     @Override
     public boolean looksLikeRecipe(String text) {
-        if (text == null || text.isBlank()) {
-            return false;
-        }
-
-        String lower = text.toLowerCase();
-        if (lower.contains("sorry") ||
-                lower.contains("i cannot") ||
-                lower.contains("unable to") ||
-                lower.contains("illegal") ||
-                lower.contains("inappropriate") ||
-                lower.startsWith("i can only answer")) {
-            return false;
-        }
-
-        if (RECIPE_PATTERN.matcher(text).find()) {
-            return true;
-        }
-
-        boolean hasTitle = text.trim().startsWith("###");
-        boolean hasIngredientsSection = lower.contains("#### ingredients:");
-        boolean hasInstructionsSection = lower.contains("#### instructions:");
-
-        return hasTitle && hasIngredientsSection && hasInstructionsSection;
+        return RecipeParser.parse(text).format() == RecipeParser.Format.STRICT;
     }
 
     @Override
@@ -115,17 +122,26 @@ public class ChatService implements IChatService {
         return recipeFileService.getDownloadMarkdown(id, backendBaseUrl);
     }
 
-    @Transactional
     public AssistantMessageDto createAndSaveConversation(User user, String userMessage) {
 
+        boolean offTopic = refusedLocally("", userMessage);
+        CompletableFuture<String> title = generateTitle(userMessage, offTopic);
+
         Conversation conversation =
                 conversationService.createConversationWithFirstMessage(user, userMessage);
-        conversation.setTitle(conversationService.createTitle(chatModel, userMessage));
-        log.info(conversation.getTitle());
 
-        String assistantReply = getResponse(userMessage, user.getId());
+        // no transaction around the model call, it would hold a pooled DB connection for its whole duration
+        String assistantReply;
+        try {
+            assistantReply = offTopic ? OFF_TOPIC_MESSAGE : modelResponse("", userMessage, user.getId());
+        } catch (RuntimeException e) {
+            title.cancel(true);
+            conversationService.deleteConversation(user, conversation.getId());
+            throw e;
+        }
 
         messageService.createAssistantMessage(assistantReply, conversation);
+        applyTitleWhenReady(conversation.getId(), title);
 
         return new AssistantMessageDto(
                 conversation.getId(),
@@ -133,14 +149,75 @@ public class ChatService implements IChatService {
         );
     }
 
+    @Override
+    public AssistantMessageStream streamNewConversation(User user, String userMessage) {
+
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        boolean offTopic = refusedLocally("", userMessage);
+        CompletableFuture<String> title = generateTitle(userMessage, offTopic);
+
+        Conversation conversation =
+                conversationService.createConversationWithFirstMessage(user, userMessage);
+        applyTitleWhenReady(conversation.getId(), title);
+
+        AtomicBoolean replySaved = new AtomicBoolean();
+        Consumer<String> saveReply = reply -> {
+            messageService.createAssistantMessage(reply, conversation);
+            replySaved.set(true);
+        };
+        Flux<String> tokens = offTopic
+                ? offTopicReply(saveReply)
+                : streamModelResponse("", userMessage, user.getId(), saveReply);
+
+        // like the blocking path, a conversation whose first reply never arrives is not kept
+        Runnable discardUnanswered = () -> {
+            if (!replySaved.get()) {
+                title.cancel(true);
+                discardConversation(user, conversation.getId());
+            }
+        };
+        return new AssistantMessageStream(conversation.getId(), tokens
+                .doOnError(e -> discardUnanswered.run())
+                .doOnCancel(discardUnanswered));
+    }
+
     @Override
     public AssistantMessageDto createGuestConversation(String message) {
 
-        String reply = getResponse(message, null);
+        Cache cache = guestChatCache();
+        String key = PromptNormalizer.normalize(message);
+
+        String reply = cache == null ? null : cache.get(key, String.class);
+        if (reply == null) {
+            reply = getResponse("", message, null);
+            if (cache != null) {
+                cache.put(key, reply);
+            }
+        }
 
         return new AssistantMessageDto(null, reply);
     }
 
+    @Override
+    public AssistantMessageStream streamGuestConversation(String message) {
+
+        Cache cache = guestChatCache();
+        if (cache == null) {
+            return new AssistantMessageStream(null, streamResponse(message));
+        }
+
+        String key = PromptNormalizer.normalize(message);
+        String cached = cache.get(key, String.class);
+        if (cached != null) {
+            return new AssistantMessageStream(null, Flux.just(cached));
+        }
+
+        return new AssistantMessageStream(null, streamResponse("", message, null, reply -> cache.put(key, reply)));
+    }
+
     @Override
     public PageResult<MessageDto> loadConversation(User user, long conversationId, int page, int pageSize) {
 
@@ -157,32 +234,60 @@ public class ChatService implements IChatService {
         return messageService.getMessagesForConversationPaged(conversationId, page, pageSize);
     }
 
+    @Override
+    public CursorPageResult<MessageDto> loadConversationAfter(User user, long conversationId, String cursor,
+                                                              int pageSize, boolean includeTotal) {
+
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        Conversation conversation = conversationService.findById(conversationId);
+
+        if (conversation.getUser().getId() != user.getId()) {
+            throw new AccessDeniedException("Conversation does not belong to user");
+        }
+
+        return messageService.getMessagesForConversationAfter(conversationId, cursor, pageSize, includeTotal);
+    }
+
     @Override
     public PageResult<ConversationDto> loadConversations(User user, int page, int pageSize) {
         if (user == null) {
             throw new ResourceNotFoundException("User not found");
         }
 
-        Page<Conversation> conversations = conversationService.findByUser(user, page, pageSize);
+        Page<ConversationListItem> conversations = conversationService.findListItemsByUser(user, page, pageSize);
         List<ConversationDto> items = conversations
                 .stream()
-                .map(c -> new ConversationDto(
-                                c.getId(),
-                                c.getTitle(),
-                                c.getMessages().stream().map(
-                                                m -> new MessageDto(
-                                                        m.getId(),
-                                                        m.getRole().name(),
-                                                        m.getContent(),
-                                                        m.getTimestamp()
-                                                )
-                                        ).toList()
-                        )
-                ).toList();
+                .map(c -> ConversationDto.listItem(
+                        c.getId(),
+                        c.getTitle(),
+                        c.getUpdatedAt(),
+                        c.getLastMessagePreview()
+                ))
+                .toList();
         return new PageResult<>(items, conversations.getTotalElements());
     }
 
     @Override
+    public CursorPageResult<ConversationDto> loadConversationsAfter(User user, String cursor, int pageSize, boolean includeTotal) {
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        if (pageSize < 1) pageSize = 20;
+
+        CursorCodec.Position after = CursorCodec.decode(cursor);
+        List<ConversationListItem> rows = conversationService.findListItemsByUserAfter(user, after, pageSize + 1);
+        Long total = includeTotal ? conversationService.countByUser(user) : null;
+
+        return CursorCodec.page(rows, pageSize, ConversationListItem::getUpdatedAt, ConversationListItem::getId,
+                c -> ConversationDto.listItem(c.getId(), c.getTitle(), c.getUpdatedAt(), c.getLastMessagePreview()),
+                total);
+    }
+
+    @Override
+    @Transactional
     public ConversationDto renameConversation(User user, long conversationId, String title) {
 
         if (user == null) {
@@ -216,6 +321,7 @@ public class ChatService implements IChatService {
         }
 
         conversationService.deleteConversation(user, conversationId);
+        conversationContextService.evict(conversationId);
     }
 
     @Override
@@ -231,10 +337,13 @@ public class ChatService implements IChatService {
             throw new AccessDeniedException("Conversation does not belong to user");
         }
 
-        String assistantReply = getResponse(userMessage, user.getId());
+        String history = conversationContextService.buildHistory(conversationId);
+        String assistantReply = getResponse(history, userMessage, user.getId());
 
         messageService.createUserMessage(userMessage, conversation);
         messageService.createAssistantMessage(assistantReply, conversation);
+        conversationContextService.recordTurn(conversationId, userMessage, assistantReply);
+        conversationSummaryService.summarizeIfNeededAsync(conversationId);
 
         return new AssistantMessageDto(
                 conversation.getId(),
@@ -242,29 +351,175 @@ public class ChatService implements IChatService {
         );
     }
 
-    private String getResponse(String userPrompt, Long userId) {
-        String fullPrompt = systemPrompt() + "\nUser: " + userPrompt;
+    @Override
+    public AssistantMessageStream streamChat(User user, String userMessage, long conversationId) {
+
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        Conversation conversation = conversationService.findById(conversationId);
+
+        if (conversation.getUser() == null || conversation.getUser().getId() != user.getId()) {
+            throw new AccessDeniedException("Conversation does not belong to user");
+        }
+
+        String history = conversationContextService.buildHistory(conversationId);
+        Flux<String> tokens = streamResponse(history, userMessage, user.getId(), reply -> {
+            messageService.createUserMessage(userMessage, conversation);
+            messageService.createAssistantMessage(reply, conversation);
+            conversationContextService.recordTurn(conversationId, userMessage, reply);
+            conversationSummaryService.summarizeIfNeededAsync(conversationId);
+        });
+
+        return new AssistantMessageStream(conversation.getId(), tokens);
+    }
+
+    /**
+     * Starts the title model call next to the reply instead of before it, so a new chat costs one
+     * model round-trip. Cancelling the future before the executor picks it up skips the call. A message
+     * the pre-filter refused gets the default title without asking the model.
+     */
+    private CompletableFuture<String> generateTitle(String userMessage, boolean offTopic) {
+        if (offTopic) {
+            return CompletableFuture.completedFuture(ConversationService.DEFAULT_TITLE);
+        }
+        return CompletableFuture.supplyAsync(
+                () -> conversationService.createTitle(chatModel, userMessage), modelCallExecutor);
+    }
+
+    private void applyTitleWhenReady(long conversationId, CompletableFuture<String> title) {
+        title.whenComplete((generated, error) -> {
+            if (error instanceof CancellationException) {
+                return;
+            }
+            if (error != null) {
+                log.warn("Title generation failed for conversation {}: {}", conversationId, error.getMessage());
+                return;
+            }
+            conversationService.applyGeneratedTitle(conversationId, generated);
+        });
+    }
+
+    private void discardConversation(User user, long conversationId) {
         try {
-            String modelOut = chatModel.call(fullPrompt);
-            if (looksLikeRecipe(modelOut)) {
-                String mdLink = createDownloadableRecipe(modelOut, userId);
-                if (!mdLink.isBlank()) {
-                    modelOut = modelOut + "\n\nYou can download this recipe here: " + mdLink;
-                }
+            conversationService.deleteConversation(user, conversationId);
+        } catch (RuntimeException e) {
+            log.warn("Could not delete unanswered conversation {}: {}", conversationId, e.getMessage());
+        }
+    }
+
+    /**
+     * Guest replies do not depend on who is asking, identical prompts are answered from the cache.
+     */
+    private Cache guestChatCache() {
+        return guestChatCacheEnabled ? cacheManager.getCache(CacheNames.GUEST_CHAT_RESPONSES) : null;
+    }
+
+    private String buildPrompt(String history, String userPrompt) {
+        if (history.isEmpty()) {
+            return systemPrompt() + "\nUser: " + userPrompt;
+        }
+        return systemPrompt() + "\n\nConversation so far:\n" + history + "\nUser: " + userPrompt;
+    }
+
+    private String withDownloadLink(String modelOut, Long userId) {
+        if (looksLikeRecipe(modelOut)) {
+            String mdLink = createDownloadableRecipe(modelOut, userId);
+            if (!mdLink.isBlank()) {
+                return modelOut + DOWNLOAD_LINK_PREFIX + mdLink;
             }
-            return modelOut;
+        }
+        return modelOut;
+    }
+
+    private RuntimeException providerFailure(OpenAIException e) {
+        log.error("Chat provider call failed. exceptionType={}, message={}",
+                e.getClass().getSimpleName(),
+                e.getMessage(),
+                e);
+        if (e instanceof RateLimitException) {
+            return new ProviderBusyException(PROVIDER_BUSY_MESSAGE);
+        }
+        return new InappropriateRequestRefusalException(PROVIDER_REFUSAL_MESSAGE);
+    }
+
+    /**
+     * Only opening messages are pre-filtered. A follow-up like "send it as a file" leans on the earlier
+     * turns, so it goes to the model with them.
+     */
+    private boolean refusedLocally(String history, String userPrompt) {
+        return history.isEmpty() && foodTopicClassifier.isOffTopic(FoodTopicClassifier.SOURCE_CHAT, userPrompt);
+    }
+
+    private String getResponse(String history, String userPrompt, Long userId) {
+        if (refusedLocally(history, userPrompt)) {
+            return OFF_TOPIC_MESSAGE;
+        }
+        return modelResponse(history, userPrompt, userId);
+    }
+
+    private String modelResponse(String history, String userPrompt, Long userId) {
+        try {
+            String modelOut = chatBulkhead.call(() -> chatModel.call(buildPrompt(history, userPrompt)));
+            return withDownloadLink(modelOut, userId);
         } catch (OpenAIException e) {
-            log.error("Chat provider call failed. exceptionType={}, message={}",
-                    e.getClass().getSimpleName(),
-                    e.getMessage(),
-                    e);
-            throw new InappropriateRequestRefusalException("Sorry, I can't help with that request.");
+            throw providerFailure(e);
         }
     }
 
     @Override
     public String getResponse(String userPrompt) {
-        return getResponse(userPrompt, null);
+        return getResponse("", userPrompt, null);
+    }
+
+    /**
+     * A message the pre-filter refuses gets the refusal as its only chunk.
+     */
+    private Flux<String> streamResponse(String history, String userPrompt, Long userId, Consumer<String> onComplete) {
+        if (refusedLocally(history, userPrompt)) {
+            return offTopicReply(onComplete);
+        }
+        return streamModelResponse(history, userPrompt, userId, onComplete);
+    }
+
+    private Flux<String> offTopicReply(Consumer<String> onComplete) {
+        return Mono.fromCallable(() -> {
+                    onComplete.accept(OFF_TOPIC_MESSAGE);
+                    return OFF_TOPIC_MESSAGE;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flux();
+    }
+
+    /**
+     * Streams the model output token by token. Once the model is done, the recipe check runs on the
+     * whole reply, the download link (if any) is emitted as a last chunk and {@code onComplete}
+     * receives the full reply so it can be persisted.
+     */
+    private Flux<String> streamModelResponse(String history, String userPrompt, Long userId, Consumer<String> onComplete) {
+        return Flux.defer(() -> {
+            StringBuilder reply = new StringBuilder();
+
+            Mono<String> downloadLink = Mono.fromCallable(() -> {
+                        String modelOut = reply.toString();
+                        String fullReply = withDownloadLink(modelOut, userId);
+                        onComplete.accept(fullReply);
+                        return fullReply.substring(modelOut.length());
+                    })
+                    .filter(suffix -> !suffix.isEmpty())
+                    .subscribeOn(Schedulers.boundedElastic());
+
+            return chatBulkhead.stream(() -> chatModel.stream(buildPrompt(history, userPrompt)))
+                    .filter(token -> token != null && !token.isEmpty())
+                    .doOnNext(reply::append)
+                    .concatWith(downloadLink);
+        }).onErrorMap(OpenAIException.class, this::providerFailure);
+    }
+
+    @Override
+    public Flux<String> streamResponse(String userPrompt) {
+        return streamResponse("", userPrompt, null, reply -> { });
     }
 
 }
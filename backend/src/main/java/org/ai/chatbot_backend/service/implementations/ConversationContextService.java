@@ -0,0 +1,128 @@
+package org.ai.chatbot_backend.service.implementations;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.RequiredArgsConstructor;
+import org.ai.chatbot_backend.config.CacheNames;
+import org.ai.chatbot_backend.dto.ContextMessage;
+import org.ai.chatbot_backend.enums.ConversationRole;
+import org.ai.chatbot_backend.model.Conversation;
+import org.ai.chatbot_backend.model.Message;
+import org.ai.chatbot_backend.repository.ConversationRepository;
+import org.ai.chatbot_backend.repository.MessageRepository;
+import org.ai.chatbot_backend.service.interfaces.IConversationContextService;
+import org.ai.chatbot_backend.util.TokenEstimator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Builds the conversation history sent with each turn: the stored summary of older messages plus the
+ * most recent messages after it. Both are kept in memory and trimmed to a token budget, newest first.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConversationContextService implements IConversationContextService {
+    private final MessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
+    private final CacheManager cacheManager;
+
+    @Value("${app.chat.history.token-budget:2000}")
+    private int tokenBudget;
+
+    @Value("${app.chat.history.max-messages:20}")
+    private int maxMessages;
+
+    @Override
+    public String buildHistory(long conversationId) {
+        if (tokenBudget <= 0 || maxMessages <= 0) {
+            return "";
+        }
+
+        Window window = windows().get(conversationId, this::loadWindow);
+
+        int used = 0;
+        String summary = null;
+        if (window.summary() != null && !window.summary().isBlank()) {
+            summary = "Summary of the earlier conversation: " + window.summary();
+            used = TokenEstimator.estimateMessage(summary);
+        }
+
+        Deque<String> lines = new ArrayDeque<>();
+        List<ContextMessage> messages = window.messages();
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            ContextMessage message = messages.get(i);
+            String line = (message.role() == ConversationRole.USER ? "User: " : "Assistant: ") + message.content();
+            int tokens = TokenEstimator.estimateMessage(line);
+            if (used + tokens > tokenBudget) {
+                break;
+            }
+            used += tokens;
+            lines.addFirst(line);
+        }
+        if (summary != null) {
+            lines.addFirst(summary);
+        }
+
+        return String.join("\n", lines);
+    }
+
+    @Override
+    public void recordTurn(long conversationId, String userMessage, String assistantReply) {
+        // only windows already in memory are extended, a missing one is loaded from the DB on the next turn
+        windows().asMap().computeIfPresent(conversationId, (id, window) -> {
+            List<ContextMessage> updated = new ArrayList<>(window.messages());
+            updated.add(new ContextMessage(ConversationRole.USER, userMessage));
+            updated.add(new ContextMessage(ConversationRole.ASSISTANT, stripDownloadLink(assistantReply)));
+            int overflow = updated.size() - maxMessages;
+            return new Window(window.summary(),
+                    List.copyOf(overflow > 0 ? updated.subList(overflow, updated.size()) : updated));
+        });
+    }
+
+    @Override
+    public void evict(long conversationId) {
+        windows().invalidate(conversationId);
+    }
+
+    private Window loadWindow(long conversationId) {
+        Conversation conversation = conversationRepository.findById(conversationId).orElse(null);
+        String summary = conversation == null ? null : conversation.getSummary();
+        long summarizedThrough = conversation == null || conversation.getSummarizedThroughMessageId() == null
+                ? 0L
+                : conversation.getSummarizedThroughMessageId();
+
+        List<Message> newestFirst = messageRepository.findByConversationIdAndIdGreaterThanOrderByIdDesc(
+                conversationId, summarizedThrough, PageRequest.of(0, maxMessages));
+
+        List<ContextMessage> messages = new ArrayList<>(newestFirst.size());
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            Message message = newestFirst.get(i);
+            messages.add(new ContextMessage(message.getRole(), stripDownloadLink(message.getContent())));
+        }
+        return new Window(summary, List.copyOf(messages));
+    }
+
+    static String stripDownloadLink(String content) {
+        if (content == null) {
+            return "";
+        }
+        int link = content.indexOf(ChatService.DOWNLOAD_LINK_PREFIX);
+        return link >= 0 ? content.substring(0, link) : content;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Long, Window> windows() {
+        return (Cache<Long, Window>) cacheManager
+                .getCache(CacheNames.CONVERSATION_WINDOWS)
+                .getNativeCache();
+    }
+
+    private record Window(String summary, List<ContextMessage> messages) {
+    }
+}
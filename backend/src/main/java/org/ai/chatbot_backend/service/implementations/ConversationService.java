@@ -3,12 +3,16 @@ package org.ai.chatbot_backend.service.implementations;
 import com.openai.errors.OpenAIException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.ai.chatbot_backend.concurrency.Bulkhead;
 import org.ai.chatbot_backend.exception.EmptyTitleException;
+import org.ai.chatbot_backend.exception.ProviderBusyException;
 import org.ai.chatbot_backend.exception.ResourceNotFoundException;
 import org.ai.chatbot_backend.model.Conversation;
 import org.ai.chatbot_backend.model.User;
 import org.ai.chatbot_backend.repository.ConversationRepository;
+import org.ai.chatbot_backend.repository.projection.ConversationListItem;
 import org.ai.chatbot_backend.service.interfaces.IConversationService;
+import org.ai.chatbot_backend.util.CursorCodec;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -17,14 +21,18 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class ConversationService implements IConversationService {
+    private static final int PREVIEW_LENGTH = 120;
 
     private final ConversationRepository conversationRepository;
     private final MessageService messageService;
+    private final Bulkhead chatBulkhead;
 
+    static final String DEFAULT_TITLE = "New Chat";
 
     @Override
     public Conversation createConversation(User user) {
@@ -101,6 +109,29 @@ public class ConversationService implements IConversationService {
         return conversationRepository.findByUserIdOrderByUpdatedAtDesc(user.getId(), pageable);
     }
 
+    @Override
+    public Page<ConversationListItem> findListItemsByUser(User user, int page, int pageSize) {
+        if (page < 1) page = 1;
+        if (pageSize < 1) pageSize = 20;
+
+        Pageable pageable = PageRequest.of(page - 1, pageSize);
+        return conversationRepository.findListItemsByUserId(user.getId(), PREVIEW_LENGTH, pageable);
+    }
+
+    @Override
+    public List<ConversationListItem> findListItemsByUserAfter(User user, CursorCodec.Position after, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        if (after == null) {
+            return conversationRepository.findFirstListItems(user.getId(), PREVIEW_LENGTH, pageable);
+        }
+        return conversationRepository.findListItemsAfter(user.getId(), PREVIEW_LENGTH, after.timestamp(), after.id(), pageable);
+    }
+
+    @Override
+    public long countByUser(User user) {
+        return conversationRepository.countByUserId(user.getId());
+    }
+
     @Override
     public String createTitle(ChatModel model, String userPrompt) {
         String prompt = """
@@ -109,13 +140,36 @@ public class ConversationService implements IConversationService {
         String fullPrompt = prompt + "\nUser: " + userPrompt;
 
         try {
-            String result = model.call(fullPrompt);
+            String result = chatBulkhead.call(() -> model.call(fullPrompt));
             if (result == null || result.isBlank()) {
-                return "New Chat";
+                return DEFAULT_TITLE;
             }
             return result;
-        }  catch (OpenAIException e) {
-            return "New Chat";
+        }  catch (OpenAIException | ProviderBusyException e) {
+            return DEFAULT_TITLE;
+        }
+    }
+
+    /**
+     * Sets a generated title on a conversation that doesn't have one yet. Runs as a single UPDATE so it
+     * waits for the conversation row to be committed and never overwrites a title the user already chose.
+     */
+    @Override
+    @Transactional
+    public void applyGeneratedTitle(long conversationId, String title) {
+        if (title == null || title.isBlank()) {
+            return;
         }
+        conversationRepository.setTitleIfMissing(conversationId, title);
+    }
+
+    /**
+     * Stores a summary only if no other summarizer moved the conversation forward since
+     * {@code expectedThroughId} was read.
+     */
+    @Override
+    @Transactional
+    public boolean applySummary(long conversationId, String summary, long throughId, long expectedThroughId) {
+        return conversationRepository.updateSummaryIfUnchanged(conversationId, summary, throughId, expectedThroughId) == 1;
     }
 }
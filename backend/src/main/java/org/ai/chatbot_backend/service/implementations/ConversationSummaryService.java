@@ -0,0 +1,167 @@
+package org.ai.chatbot_backend.service.implementations;
+
+import com.openai.errors.OpenAIException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.ai.chatbot_backend.concurrency.Bulkhead;
+import org.ai.chatbot_backend.enums.ConversationRole;
+import org.ai.chatbot_backend.exception.ProviderBusyException;
+import org.ai.chatbot_backend.model.Conversation;
+import org.ai.chatbot_backend.model.Message;
+import org.ai.chatbot_backend.repository.ConversationRepository;
+import org.ai.chatbot_backend.repository.MessageRepository;
+import org.ai.chatbot_backend.service.interfaces.IConversationSummaryService;
+import org.ai.chatbot_backend.util.TokenEstimator;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Folds older messages of long conversations into a stored summary, so prompts are built from the
+ * summary plus the most recent turns instead of the full history. Each run folds at most one bounded
+ * batch, a long backlog is worked off over the following turns.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConversationSummaryService implements IConversationSummaryService {
+
+    private final ChatModel chatModel;
+    private final ConversationRepository conversationRepository;
+    private final MessageRepository messageRepository;
+    private final ConversationService conversationService;
+    private final ConversationContextService conversationContextService;
+    private final ExecutorService modelCallExecutor;
+    private final Bulkhead chatBulkhead;
+
+    private final Set<Long> inProgress = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.chat.summary.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.chat.summary.trigger-messages:30}")
+    private int triggerMessages;
+
+    @Value("${app.chat.summary.keep-recent:10}")
+    private int keepRecent;
+
+    @Value("${app.chat.summary.max-fold-messages:30}")
+    private int maxFoldMessages;
+
+    @Value("${app.chat.summary.max-fold-tokens:4000}")
+    private int maxFoldTokens;
+
+    @Override
+    public void summarizeIfNeededAsync(long conversationId) {
+        if (!enabled) {
+            return;
+        }
+        // one summarizer per conversation on this node, concurrent turns just skip
+        if (!inProgress.add(conversationId)) {
+            return;
+        }
+        try {
+            modelCallExecutor.execute(() -> {
+                try {
+                    summarizeIfNeeded(conversationId);
+                } catch (RuntimeException e) {
+                    log.warn("Summarizing conversation {} failed: {}", conversationId, e.getMessage());
+                } finally {
+                    inProgress.remove(conversationId);
+                }
+            });
+        } catch (RuntimeException e) {
+            inProgress.remove(conversationId);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns true if a new summary was stored. Safe to run concurrently, also across nodes: the
+     * summary is only written if nobody else advanced it in the meantime.
+     */
+    @Override
+    public boolean summarizeIfNeeded(long conversationId) {
+        Conversation conversation = conversationRepository.findById(conversationId).orElse(null);
+        if (conversation == null) {
+            return false;
+        }
+        long summarizedThrough = conversation.getSummarizedThroughMessageId() == null
+                ? 0L
+                : conversation.getSummarizedThroughMessageId();
+
+        long unsummarized = messageRepository.countByConversationIdAndIdGreaterThan(conversationId, summarizedThrough);
+        if (unsummarized <= triggerMessages) {
+            return false;
+        }
+
+        int foldCount = (int) Math.min(unsummarized - keepRecent, maxFoldMessages);
+        if (foldCount <= 0) {
+            return false;
+        }
+        List<Message> toFold = withinTokenBudget(messageRepository.findByConversationIdAndIdGreaterThanOrderByIdAsc(
+                conversationId, summarizedThrough, PageRequest.of(0, foldCount)));
+        if (toFold.isEmpty()) {
+            return false;
+        }
+
+        String summary;
+        try {
+            summary = chatBulkhead.call(() -> chatModel.call(buildPrompt(conversation.getSummary(), toFold)));
+        } catch (OpenAIException | ProviderBusyException e) {
+            log.warn("Summary model call failed for conversation {}: {}", conversationId, e.getMessage());
+            return false;
+        }
+        if (summary == null || summary.isBlank()) {
+            return false;
+        }
+
+        long throughId = toFold.get(toFold.size() - 1).getId();
+        boolean applied = conversationService.applySummary(conversationId, summary.trim(), throughId, summarizedThrough);
+        if (applied) {
+            conversationContextService.evict(conversationId);
+        }
+        return applied;
+    }
+
+    // always takes the oldest message, so one oversized message cannot stall the summary
+    private List<Message> withinTokenBudget(List<Message> batch) {
+        int used = 0;
+        int count = 0;
+        for (Message message : batch) {
+            used += TokenEstimator.estimateMessage(ConversationContextService.stripDownloadLink(message.getContent()));
+            if (count > 0 && used > maxFoldTokens) {
+                break;
+            }
+            count++;
+        }
+        return batch.subList(0, count);
+    }
+
+    private static String buildPrompt(String previousSummary, List<Message> messages) {
+        StringBuilder prompt = new StringBuilder("""
+                You maintain a running summary of a conversation between a user and a cooking assistant.
+                Update the summary with the new messages below. Keep dishes, ingredients, preferences,
+                dietary restrictions and open questions; drop greetings and full recipe texts.
+                Answer with the summary only, at most 150 words.
+                """);
+
+        if (previousSummary != null && !previousSummary.isBlank()) {
+            prompt.append("\nCurrent summary:\n").append(previousSummary).append('\n');
+        }
+
+        prompt.append("\nNew messages:\n");
+        for (Message message : messages) {
+            prompt.append(message.getRole() == ConversationRole.USER ? "User: " : "Assistant: ")
+                    .append(ConversationContextService.stripDownloadLink(message.getContent()))
+                    .append('\n');
+        }
+        return prompt.toString();
+    }
+}
@@ -0,0 +1,155 @@
+package org.ai.chatbot_backend.service.implementations;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.ai.chatbot_backend.util.KeywordMatcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Local pre-filter in front of the chat and recipe model calls. A message is scored from the off-topic
+ * keywords of its source and the food words (food_keywords.txt) it contains; when the estimated
+ * probability that it is not about food reaches app.chat.prefilter.threshold it is refused without calling
+ * the model. Chat messages are matched against off_topic_keywords.txt only, recipe fields also against
+ * non_food_keywords.txt, whose tools and materials are fine to mention in a chat but not as ingredients.
+ * Anything the lexicons do not recognise still goes to the model.
+ */
+@Slf4j
+@Service
+public class FoodTopicClassifier {
+
+    public static final String SOURCE_CHAT = "chat";
+    public static final String SOURCE_RECIPE = "recipe";
+
+    // logistic weights: one off-topic keyword alone scores 0.62, two 0.92, one food word cancels either
+    private static final double BIAS = -1.5;
+    private static final double OFF_TOPIC_WEIGHT = 2.0;
+    private static final double FOOD_WEIGHT = 3.0;
+
+    private final boolean enabled;
+    private final double threshold;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Lexicon> offTopic;
+    private final Lexicon food;
+
+    public FoodTopicClassifier(@Value("${app.chat.prefilter.enabled:true}") boolean enabled,
+                               @Value("${app.chat.prefilter.threshold:0.6}") double threshold,
+                               @Value("${app.chat.prefilter.chat-off-topic-keywords:classpath:off_topic_keywords.txt}") List<String> chatOffTopicKeywords,
+                               @Value("${app.chat.prefilter.recipe-off-topic-keywords:classpath:non_food_keywords.txt,classpath:off_topic_keywords.txt}") List<String> recipeOffTopicKeywords,
+                               @Value("${app.chat.prefilter.food-keywords:classpath:food_keywords.txt}") List<String> foodKeywords,
+                               ResourceLoader resourceLoader,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.meterRegistry = meterRegistry;
+        this.offTopic = Map.of(
+                SOURCE_CHAT, Lexicon.load(resourceLoader, chatOffTopicKeywords),
+                SOURCE_RECIPE, Lexicon.load(resourceLoader, recipeOffTopicKeywords));
+        this.food = Lexicon.load(resourceLoader, foodKeywords);
+        log.info("Topic pre-filter {} with threshold {}, {} chat and {} recipe off-topic keywords, {} food keywords",
+                enabled ? "enabled" : "disabled", threshold, offTopic.get(SOURCE_CHAT).size(),
+                offTopic.get(SOURCE_RECIPE).size(), food.size());
+    }
+
+    /**
+     * Estimated probability that the text is not about food, from 0 to 1.
+     */
+    public double offTopicScore(String source, String text) {
+        Lexicon lexicon = offTopic.get(source);
+        if (lexicon == null) {
+            throw new IllegalArgumentException("Unknown pre-filter source " + source);
+        }
+        int offTopicHits = lexicon.count(text);
+        if (offTopicHits == 0) {
+            return sigmoid(BIAS);
+        }
+        int foodHits = food.count(text);
+        return sigmoid(BIAS + OFF_TOPIC_WEIGHT * offTopicHits - FOOD_WEIGHT * foodHits);
+    }
+
+    /**
+     * Whether the text should be refused without asking the model. Every decision is counted under
+     * chat.prefilter.decisions, tagged with the source and the outcome.
+     */
+    public boolean isOffTopic(String source, String text) {
+        if (!enabled) {
+            return false;
+        }
+        boolean refused = offTopicScore(source, text) >= threshold;
+        meterRegistry.counter("chat.prefilter.decisions",
+                "source", source,
+                "outcome", refused ? "refused" : "passed").increment();
+        if (refused) {
+            log.debug("Refused {} request locally as off-topic", source);
+        }
+        return refused;
+    }
+
+    private static double sigmoid(double z) {
+        return 1 / (1 + Math.exp(-z));
+    }
+
+    /**
+     * Keywords with their plural forms, counted once per keyword however it is spelled.
+     */
+    private record Lexicon(KeywordMatcher matcher, Map<String, String> baseForms) {
+
+        static Lexicon load(ResourceLoader resourceLoader, List<String> locations) {
+            Map<String, String> baseForms = new HashMap<>();
+            for (String location : locations) {
+                for (String keyword : read(resourceLoader.getResource(location.trim()))) {
+                    for (String form : forms(keyword)) {
+                        baseForms.putIfAbsent(form, keyword);
+                    }
+                }
+            }
+            if (baseForms.isEmpty()) {
+                throw new IllegalStateException("No pre-filter keywords in " + locations);
+            }
+            return new Lexicon(KeywordMatcher.compile(baseForms.keySet()), baseForms);
+        }
+
+        int count(String text) {
+            return (int) matcher.findAll(text).stream().map(baseForms::get).distinct().count();
+        }
+
+        int size() {
+            return (int) baseForms.values().stream().distinct().count();
+        }
+
+        private static List<String> read(Resource resource) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+                return reader.lines()
+                        .map(String::trim)
+                        .filter(line -> !line.isBlank() && !line.startsWith("#"))
+                        .map(line -> line.toLowerCase(Locale.ROOT))
+                        .toList();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Reading pre-filter keywords from " + resource.getDescription() + " failed", e);
+            }
+        }
+
+        private static List<String> forms(String keyword) {
+            if (keyword.matches(".*[^aeiou]y")) {
+                return List.of(keyword, keyword + "s", keyword.substring(0, keyword.length() - 1) + "ies");
+            }
+            if (keyword.matches(".*(s|x|z|ch|sh|o)")) {
+                return List.of(keyword, keyword + "es", keyword + "s");
+            }
+            return List.of(keyword, keyword + "s");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.ai.chatbot_backend.service.implementations;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.ai.chatbot_backend.repository.ImageRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Generates renditions for images stored before they existed. Runs once on a background thread after
+ * startup when app.images.renditions.backfill.enabled is set; images are walked by id, so one that keeps
+ * failing is logged and skipped instead of blocking the rest.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageRenditionBackfill {
+    private final ImageRepository imageRepository;
+    private final ImageService imageService;
+
+    @Value("${app.images.renditions.backfill.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.images.renditions.backfill.batch-size:50}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void startIfEnabled() {
+        if (enabled) {
+            Thread.ofPlatform().name("image-rendition-backfill").daemon().start(this::run);
+        }
+    }
+
+    public int run() {
+        int done = 0;
+        int failed = 0;
+        long afterId = 0;
+        List<Long> ids;
+        while (!(ids = imageRepository.findIdsWithoutRenditions(afterId, PageRequest.of(0, batchSize))).isEmpty()) {
+            for (Long id : ids) {
+                try {
+                    imageService.backfillRenditions(id);
+                    done++;
+                } catch (Exception e) {
+                    failed++;
+                    log.warn("Backfilling renditions for image {} failed", id, e);
+                }
+            }
+            afterId = ids.getLast();
+            log.info("Rendition backfill: {} images done, {} failed", done, failed);
+        }
+        return done;
+    }
+}
@@ -0,0 +1,150 @@
+package org.ai.chatbot_backend.service.implementations;
+
+import lombok.extern.slf4j.Slf4j;
+import net.coobird.thumbnailator.Thumbnails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Downscaled copies of a generated image for the gallery. The output format is the first of
+ * app.images.renditions.formats that has a working ImageIO writer; JPEG is always available.
+ */
+@Slf4j
+@Service
+public class ImageRenditionService {
+
+    public record Rendition(int size, int width, String extension, String contentType, byte[] bytes) {
+    }
+
+    private record Format(String name, String extension, String contentType) {
+    }
+
+    private static final Format JPEG = new Format("jpeg", "jpg", "image/jpeg");
+
+    private final List<Integer> sizes;
+    private final Format format;
+    private final float quality;
+
+    public ImageRenditionService(@Value("${app.images.renditions.sizes:150,300,768}") List<Integer> sizes,
+                                 @Value("${app.images.renditions.formats:avif,webp,jpeg}") List<String> formats,
+                                 @Value("${app.images.renditions.quality:0.8}") float quality) {
+        this.sizes = sizes.stream().distinct().sorted().toList();
+        this.quality = quality;
+        this.format = pickFormat(formats);
+        log.info("Image renditions {} as {}", this.sizes, format.name());
+    }
+
+    /**
+     * The size used for the single legacy thumbnail: 300 when configured, otherwise the closest one.
+     */
+    public int thumbnailSize() {
+        return sizes.stream()
+                .min((a, b) -> Integer.compare(Math.abs(a - 300), Math.abs(b - 300)))
+                .orElseThrow();
+    }
+
+    /**
+     * Starts one resize + encode per configured size in parallel. Sizes are bounding boxes, an image is
+     * never scaled up, so sizes above the original are left out (the smallest one is always produced).
+     */
+    public List<CompletableFuture<Rendition>> render(byte[] imageBytes) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(imageBytes));
+        if (source == null) {
+            throw new IOException("Unsupported image format");
+        }
+        int longestSide = Math.max(source.getWidth(), source.getHeight());
+
+        return sizes.stream()
+                .filter(size -> size <= longestSide || size.equals(sizes.getFirst()))
+                .map(size -> CompletableFuture.supplyAsync(() -> encode(source, size)))
+                .toList();
+    }
+
+    private Rendition encode(BufferedImage source, int size) {
+        try {
+            BufferedImage resized = Thumbnails.of(source)
+                    .size(size, size)
+                    .imageType(BufferedImage.TYPE_INT_RGB)
+                    .asBufferedImage();
+            return new Rendition(size, resized.getWidth(), format.extension(), format.contentType(), write(resized));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] write(BufferedImage image) throws IOException {
+        return write(image, format);
+    }
+
+    private byte[] write(BufferedImage image, Format format) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format.name()).next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), writeParam(writer));
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private ImageWriteParam writeParam(ImageWriter writer) {
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (!param.canWriteCompressed()) {
+            return param;
+        }
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        String[] types = param.getCompressionTypes();
+        if (types != null && types.length > 0) {
+            // webp writers offer lossless and lossy, lossy is the one that makes thumbnails small
+            param.setCompressionType(Arrays.stream(types)
+                    .filter(type -> type.toLowerCase(Locale.ROOT).contains("lossy"))
+                    .findFirst()
+                    .orElse(types[0]));
+        }
+        param.setCompressionQuality(quality);
+        return param;
+    }
+
+    private Format pickFormat(List<String> formats) {
+        for (String name : formats) {
+            String normalized = name.trim().toLowerCase(Locale.ROOT);
+            if (!ImageIO.getImageWritersByFormatName(normalized).hasNext()) {
+                continue;
+            }
+            Format candidate = switch (normalized) {
+                case "jpeg", "jpg" -> JPEG;
+                default -> new Format(normalized, normalized, "image/" + normalized);
+            };
+            if (canEncode(candidate)) {
+                return candidate;
+            }
+        }
+        return JPEG;
+    }
+
+    // plugin writers can be registered but still fail on first use, e.g. when their native library is missing
+    private boolean canEncode(Format candidate) {
+        try {
+            return write(new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB), candidate).length > 0;
+        } catch (Exception | LinkageError e) {
+            log.warn("Image format {} is not usable, trying the next one", candidate.name(), e);
+            return false;
+        }
+    }
+}
@@ -1,49 +1,73 @@
 package org.ai.chatbot_backend.service.implementations;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.coobird.thumbnailator.Thumbnails;
+import org.ai.chatbot_backend.concurrency.Bulkhead;
+import org.ai.chatbot_backend.dto.CursorPageResult;
 import org.ai.chatbot_backend.dto.FoodImageRequest;
+import org.ai.chatbot_backend.dto.GeneratedImage;
 import org.ai.chatbot_backend.dto.ImageContent;
 import org.ai.chatbot_backend.dto.ImageDto;
+import org.ai.chatbot_backend.dto.ImageRenditionDto;
 import org.ai.chatbot_backend.dto.PageResult;
 import org.ai.chatbot_backend.exception.InappropriateRequestRefusalException;
+import org.ai.chatbot_backend.exception.ProviderBusyException;
+import org.ai.chatbot_backend.exception.RangeNotSatisfiableException;
 import org.ai.chatbot_backend.exception.ResourceNotFoundException;
 import org.ai.chatbot_backend.model.Image;
+import org.ai.chatbot_backend.model.ImageRendition;
 import org.ai.chatbot_backend.model.User;
 import org.ai.chatbot_backend.repository.ImageRepository;
 import org.ai.chatbot_backend.service.interfaces.IImageService;
+import org.ai.chatbot_backend.util.CursorCodec;
+import org.ai.chatbot_backend.util.KeywordMatcher;
+import org.ai.chatbot_backend.util.MaiResponseParser;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.DefaultResponseErrorHandler;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
 import java.io.*;
 import java.net.URI;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -53,6 +77,9 @@ public class ImageService implements IImageService {
     private static final int MAX_TOTAL_PIXELS = 1_048_576;
     private static final Pattern SIZE_PATTERN = Pattern.compile("^(\\d+)x(\\d+)$");
     private static final String DEFAULT_REFUSAL_MESSAGE = "Sorry, I can only generate images of food.";
+    private static final String PROVIDER_BUSY_MESSAGE = "The image generator is busy right now, please try again in a moment.";
+    private static final DefaultResponseErrorHandler MAI_ERROR_HANDLER = new DefaultResponseErrorHandler();
+    private static final Pattern SINGLE_BYTE_RANGE = Pattern.compile("^bytes=(\\d+-\\d*|-\\d+)$");
 
     @Value("${cloudflare.r2.bucket}")
     @Getter
@@ -66,18 +93,65 @@ public class ImageService implements IImageService {
 
     private final UserService userService;
     private final S3Client r2Client;
+    private final S3AsyncClient r2AsyncClient;
     @Getter
     private final R2Service r2Service;
+    private final ImageRenditionService renditionService;
     private final RestClient restClient;
 
     private final ImageRepository imageRepository;
+    private final Bulkhead imageBulkhead;
+    private final MeterRegistry meterRegistry;
 
-    @Value("classpath:non_food_keywords.txt")
+    @Value("${app.images.non-food-keywords.location:classpath:non_food_keywords.txt}")
     private Resource keywordsFile;
-    private Set<String> nonFoodKeywords = Set.of();
-
+    @Value("${app.images.non-food-keywords.reload-interval:30s}")
+    private Duration keywordsReloadInterval;
+    private volatile KeywordMatcher nonFoodMatcher = KeywordMatcher.compile(Set.of());
+    private ScheduledExecutorService keywordsWatcher;
+    private long keywordsLastModified;
+
+    /**
+     * Compiles the keyword file into a matcher. When the file lives on disk (not inside the jar) it is
+     * checked for changes every reload-interval and recompiled; a broken edit keeps the previous matcher.
+     */
     @PostConstruct
     public void loadKeywords() throws IOException {
+        nonFoodMatcher = readKeywords();
+        log.info("Loaded {} non-food keywords from {}", nonFoodMatcher.size(), keywordsFile.getDescription());
+
+        if (keywordsWatcher == null && keywordsReloadInterval != null && keywordsReloadInterval.isPositive()
+                && keywordsFile.isFile()) {
+            keywordsLastModified = keywordsFile.lastModified();
+            keywordsWatcher = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("non-food-keywords-watcher").daemon().factory());
+            long interval = keywordsReloadInterval.toMillis();
+            keywordsWatcher.scheduleWithFixedDelay(this::reloadKeywordsIfChanged, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stopKeywordsWatcher() {
+        if (keywordsWatcher != null) {
+            keywordsWatcher.shutdownNow();
+        }
+    }
+
+    void reloadKeywordsIfChanged() {
+        try {
+            long lastModified = keywordsFile.lastModified();
+            if (lastModified == keywordsLastModified) {
+                return;
+            }
+            keywordsLastModified = lastModified;
+            nonFoodMatcher = readKeywords();
+            log.info("Reloaded {} non-food keywords", nonFoodMatcher.size());
+        } catch (Exception e) {
+            log.warn("Reloading non-food keywords failed, keeping the previous list", e);
+        }
+    }
+
+    private KeywordMatcher readKeywords() throws IOException {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(keywordsFile.getInputStream()))) {
             Set<String> loadedKeywords = reader.lines()
                     .map(String::trim)
@@ -89,7 +163,7 @@ public class ImageService implements IImageService {
                 throw new IllegalStateException("non_food_keywords.txt is empty");
             }
 
-            nonFoodKeywords = loadedKeywords;
+            return KeywordMatcher.compile(loadedKeywords);
         }
     }
 
@@ -105,17 +179,10 @@ public class ImageService implements IImageService {
             return;
         }
 
-        String lower = value.toLowerCase(Locale.ROOT);
-
-        List<String> words = Arrays.stream(lower.split("\\W+"))
-                .filter(s -> !s.isBlank())
-                .toList();
-
-        for (String keyword : nonFoodKeywords) {
-            if (words.contains(keyword)) {
-                log.warn("Blocked keyword '{}' detected in value '{}'", keyword, value);
-                throw new InappropriateRequestRefusalException(DEFAULT_REFUSAL_MESSAGE);
-            }
+        String keyword = nonFoodMatcher.findFirst(value);
+        if (keyword != null) {
+            log.warn("Blocked keyword '{}' detected in value '{}'", keyword, value);
+            throw new InappropriateRequestRefusalException(DEFAULT_REFUSAL_MESSAGE);
         }
     }
 
@@ -125,6 +192,28 @@ public class ImageService implements IImageService {
             return "https://picsum.photos/512";
         }
 
+        GeneratedImage image = generate(request);
+        if (image.bytes() != null) {
+            // guests get the image inline, there is nowhere to store it
+            return "data:image/png;base64," + Base64.getEncoder().encodeToString(image.bytes());
+        }
+        return image.url();
+    }
+
+    @Override
+    public ImageDto generateFoodImageForUser(FoodImageRequest request, Long userId) throws Exception {
+        if (mockEnabled) {
+            return persistImageForUser("https://picsum.photos/512", userId);
+        }
+
+        GeneratedImage image = generate(request);
+        if (image.bytes() != null) {
+            return storeImage(image.bytes(), userId, System.nanoTime());
+        }
+        return persistImageForUser(image.url(), userId);
+    }
+
+    private GeneratedImage generate(FoodImageRequest request) {
         if (request == null) {
             throw new InappropriateRequestRefusalException("Sorry, the request is invalid");
         }
@@ -151,7 +240,7 @@ public class ImageService implements IImageService {
         try {
             log.info("Final MAI prompt: {}", promptText);
             return callMaiImageApi(promptText, width, height);
-        } catch (InappropriateRequestRefusalException e) {
+        } catch (InappropriateRequestRefusalException | ProviderBusyException e) {
             throw e;
         } catch (Exception e) {
             log.error("Azure MAI image generation error: {}", e.getMessage(), e);
@@ -199,7 +288,7 @@ public class ImageService implements IImageService {
         return prompt.toString();
     }
 
-    private String callMaiImageApi(String prompt, int width, int height) throws Exception {
+    private GeneratedImage callMaiImageApi(String prompt, int width, int height) throws Exception {
         Map<String, Object> requestBody = Map.of(
                 "prompt", prompt,
                 "width", width,
@@ -214,20 +303,26 @@ public class ImageService implements IImageService {
         
         log.debug("Sending image generation request - Prompt: {}, Dimensions: {}x{}", prompt, width, height);
 
-        Map<String, Object> response;
+        GeneratedImage image;
         try {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> body = restClient.post()
+            image = imageBulkhead.call(() -> restClient.post()
                     .uri(maiEndpoint)
                     .header("api-key", maiApiKey)
                     .header("Content-Type", "application/json")
                     .body(jsonBody)
-                    .retrieve()
-                    .body(Map.class);
-            response = body;
+                    .exchange((request, response) -> {
+                        if (response.getStatusCode().isError()) {
+                            MAI_ERROR_HANDLER.handleError(request.getURI(), request.getMethod(), response);
+                        }
+                        // read straight off the response body, b64_json is decoded as it streams in
+                        return MaiResponseParser.parse(response.getBody());
+                    }));
         } catch (HttpClientErrorException e) {
             log.error("Azure MAI API error - Status: {}, Message: {}, Response: {}", 
                     e.getStatusCode(), e.getMessage(), e.getResponseBodyAsString());
+            if (e.getStatusCode().value() == 429) {
+                throw new ProviderBusyException(PROVIDER_BUSY_MESSAGE);
+            }
             if (e.getStatusCode().value() == 400) {
                 log.error("MAI 400 RESPONSE BODY: {}", e.getResponseBodyAsString());
 
@@ -236,30 +331,17 @@ public class ImageService implements IImageService {
                 );
             }
             throw e;
+        } catch (ProviderBusyException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Unexpected error calling Azure MAI API: {}", e.getMessage(), e);
             throw e;
         }
 
-        @SuppressWarnings("unchecked")
-        List<Map<String, String>> data = (List<Map<String, String>>) response.get("data");
-        if (data == null || data.isEmpty()) {
+        if (image == null || (image.bytes() != null && image.bytes().length == 0)) {
             throw new InappropriateRequestRefusalException(DEFAULT_REFUSAL_MESSAGE);
         }
-
-        Map<String, String> result = data.getFirst();
-
-        if (result.containsKey("b64_json")) {
-            String base64 = result.get("b64_json");
-            // return as data uri, don't persist to R2 yet, that happens in persistImageForUser
-            return "data:image/png;base64," + base64;
-        }
-
-        if (result.containsKey("url")) {
-            return result.get("url");
-        }
-
-        throw new InappropriateRequestRefusalException(DEFAULT_REFUSAL_MESSAGE);
+        return image;
     }
 
     private static @NonNull String getNormalizedSize(FoodImageRequest request, String style) {
@@ -295,70 +377,145 @@ public class ImageService implements IImageService {
         return normalizedSize;
     }
 
-    private Path createThumbnail(Path fileName) throws IOException {
-        Path thumbnailFile = Files.createTempFile("thumb-", ".jpg");
-        Thumbnails.of(fileName.toFile())
-                .size(300, 300)
-                .outputFormat("jpg")
-                .toFile(thumbnailFile.toFile());
+    public ImageDto persistImageForUser(String tempUrl, Long userId) throws Exception {
+        long start = System.nanoTime();
+        byte[] imageBytes = readImage(tempUrl);
+        recordStep("decode", start);
 
-        return thumbnailFile;
+        return storeImage(imageBytes, userId, start);
     }
 
-    public ImageDto persistImageForUser(String tempUrl, Long userId) throws Exception {
-        Path tempFile = Files.createTempFile("img-", ".png");
-
+    private static byte[] readImage(String tempUrl) throws Exception {
         // handle data uri (from image generation)
         if (tempUrl.startsWith("data:image")) {
-            String base64 = tempUrl.substring(tempUrl.indexOf(",") + 1);
-            byte[] imageBytes = Base64.getDecoder().decode(base64);
-            Files.write(tempFile, imageBytes);
-        } else {
-            // handle regular url
-            try (InputStream in = new URI(tempUrl).toURL().openStream()) {
-                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
-            }
+            return Base64.getDecoder().decode(tempUrl.substring(tempUrl.indexOf(",") + 1));
+        }
+        // handle regular url
+        try (InputStream in = new URI(tempUrl).toURL().openStream()) {
+            return in.readAllBytes();
         }
+    }
 
+    /**
+     * Uploads the image and its renditions straight from memory, nothing touches the disk. The original
+     * uploads while the renditions are encoded in parallel, each rendition uploads as soon as it is ready.
+     */
+    private ImageDto storeImage(byte[] imageBytes, Long userId, long start) throws Exception {
         String filename = "users/" + userId + "/images/" + UUID.randomUUID() + ".png";
-        r2Client.putObject(
-                PutObjectRequest.builder()
-                        .bucket(bucket)
-                        .key(filename)
-                        .contentType("image/png")
-                        .build(),
-                tempFile
-        );
-
-        Path thumbnailFile = createThumbnail(tempFile);
-        String thumbnailFilename = "users/" + userId + "/thumbnails/" + UUID.randomUUID() + ".jpg";
-        r2Client.putObject(
-                PutObjectRequest.builder()
-                        .bucket(bucket)
-                        .key(thumbnailFilename)
-                        .contentType("image/jpeg")
-                        .build(),
-                thumbnailFile
-        );
+        CompletableFuture<PutObjectResponse> imageUpload =
+                upload(filename, "image/png", AsyncRequestBody.fromBytesUnsafe(imageBytes), "upload_image");
 
-        String signedUrl = r2Service.generateSignedUrl(filename);
-        String signedThumbnailUrl = r2Service.generateSignedUrl(thumbnailFilename);
+        StoredRenditions stored = storeRenditions(imageBytes, userId, imageUpload);
 
         User user = userService.findById(userId);
 
         Image image = Image.builder()
                 .user(user)
                 .filename(filename)
-                .thumbnailFilename(thumbnailFilename)
+                .thumbnailFilename(stored.thumbnailKey())
+                .renditions(stored.renditions())
                 .createdAt(LocalDateTime.now())
                 .build();
         Image savedImage = imageRepository.save(image);
+        recordStep("total", start);
+
+        return toDtos(List.of(savedImage)).getFirst();
+    }
+
+    private record StoredRenditions(List<ImageRendition> renditions, String thumbnailKey) {
+    }
 
-        Files.deleteIfExists(tempFile);
-        Files.deleteIfExists(thumbnailFile);
+    private StoredRenditions storeRenditions(byte[] imageBytes, Long userId, CompletableFuture<?>... alongside)
+            throws Exception {
+        long renderStart = System.nanoTime();
+        List<CompletableFuture<ImageRenditionService.Rendition>> encodings = renditionService.render(imageBytes);
+        CompletableFuture.allOf(encodings.toArray(CompletableFuture[]::new))
+                .whenComplete((done, error) -> recordStep("renditions", renderStart));
+
+        String id = UUID.randomUUID().toString();
+        List<CompletableFuture<Map.Entry<Integer, ImageRendition>>> uploads = encodings.stream()
+                .map(encoding -> encoding.thenCompose(r -> {
+                    String key = "users/" + userId + "/renditions/" + id + "-" + r.size() + "." + r.extension();
+                    return upload(key, r.contentType(), AsyncRequestBody.fromBytesUnsafe(r.bytes()), "upload_rendition")
+                            .thenApply(response -> Map.entry(r.size(), new ImageRendition(r.width(), key)));
+                }))
+                .toList();
 
-        return new ImageDto(savedImage.getId(), signedUrl, signedThumbnailUrl, savedImage.getFilename(),
-                savedImage.getThumbnailFilename(), savedImage.getCreatedAt());
+        List<CompletableFuture<?>> all = new ArrayList<>(uploads);
+        all.addAll(Arrays.asList(alongside));
+        awaitUploads(all.toArray(CompletableFuture[]::new));
+
+        List<Map.Entry<Integer, ImageRendition>> bySize = uploads.stream().map(CompletableFuture::join).toList();
+        int thumbnailSize = renditionService.thumbnailSize();
+        String thumbnailKey = bySize.stream()
+                .filter(e -> e.getKey() == thumbnailSize)
+                .findFirst()
+                .orElse(bySize.getLast())
+                .getValue().key();
+        return new StoredRenditions(bySize.stream().map(Map.Entry::getValue).toList(), thumbnailKey);
+    }
+
+    /**
+     * Generates renditions for an image stored before they existed. The old single thumbnail is replaced
+     * by the matching rendition and removed from storage.
+     */
+    public void backfillRenditions(long imageId) throws Exception {
+        Image image = imageRepository.findById(imageId)
+                .orElseThrow(() -> new ResourceNotFoundException("Image with id " + imageId + " not found"));
+        if (image.getRenditions() != null) {
+            return;
+        }
+
+        byte[] imageBytes = r2Client.getObjectAsBytes(GetObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(image.getFilename())
+                        .build())
+                .asByteArray();
+        StoredRenditions stored = storeRenditions(imageBytes, image.getUser().getId());
+
+        String oldThumbnail = image.getThumbnailFilename();
+        image.setRenditions(stored.renditions());
+        image.setThumbnailFilename(stored.thumbnailKey());
+        imageRepository.save(image);
+
+        if (oldThumbnail != null && !oldThumbnail.isBlank()) {
+            try {
+                deleteObject(oldThumbnail, "image thumbnail");
+            } catch (RuntimeException e) {
+                log.warn("Could not remove old thumbnail {} of image {}", oldThumbnail, imageId, e);
+            }
+        }
+    }
+
+    private CompletableFuture<PutObjectResponse> upload(String key, String contentType, AsyncRequestBody body, String step) {
+        long start = System.nanoTime();
+        return r2AsyncClient.putObject(
+                        PutObjectRequest.builder()
+                                .bucket(bucket)
+                                .key(key)
+                                .contentType(contentType)
+                                .build(),
+                        body)
+                .whenComplete((response, error) -> recordStep(step, start));
+    }
+
+    private static void awaitUploads(CompletableFuture<?>... uploads) throws Exception {
+        try {
+            CompletableFuture.allOf(uploads).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void recordStep(String step, long startNanos) {
+        Timer.builder("image.persist")
+                .description("Time spent in each step of storing a generated image")
+                .tag("step", step)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
     }
 
     @Override
@@ -369,18 +526,59 @@ public class ImageService implements IImageService {
         Pageable pageable = PageRequest.of(page - 1, pageSize);
         Page<Image> p = imageRepository.findByUserIdOrderByCreatedAtDesc(user.getId(), pageable);
 
-        List<ImageDto> items = p.stream().map(img -> {
-            String signedUrl = r2Service.generateSignedUrl(img.getFilename());
-            String signedThumbnailUrl = img.getThumbnailFilename() == null
-                    ? signedUrl
-                    : r2Service.generateSignedUrl(img.getThumbnailFilename());
-            return new ImageDto(img.getId(), signedUrl, signedThumbnailUrl, img.getFilename(),
-                    img.getThumbnailFilename(), img.getCreatedAt());
-        }).toList();
+        List<ImageDto> items = toDtos(p.getContent());
 
         return new PageResult<>(List.copyOf(items), p.getTotalElements());
     }
 
+    @Override
+    public CursorPageResult<ImageDto> getImagesAfter(User user, String cursor, int pageSize, boolean includeTotal) {
+        if (pageSize < 1) pageSize = 18;
+
+        CursorCodec.Position after = CursorCodec.decode(cursor);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Image> images = after == null
+                ? imageRepository.findFirstPage(user.getId(), limit)
+                : imageRepository.findPageAfter(user.getId(), after.timestamp(), after.id(), limit);
+        Long total = includeTotal ? imageRepository.countByUserId(user.getId()) : null;
+
+        // the extra row only tells CursorCodec there is a next page, it is not signed
+        Map<String, String> urls = signUrls(images.subList(0, Math.min(images.size(), pageSize)));
+        return CursorCodec.page(images, pageSize, Image::getCreatedAt, Image::getId, img -> toDto(img, urls), total);
+    }
+
+    private List<ImageDto> toDtos(List<Image> images) {
+        Map<String, String> urls = signUrls(images);
+        return images.stream().map(img -> toDto(img, urls)).toList();
+    }
+
+    private Map<String, String> signUrls(List<Image> images) {
+        return r2Service.generateSignedUrls(images.stream().flatMap(ImageService::storageKeys).toList());
+    }
+
+    private static Stream<String> storageKeys(Image img) {
+        Stream<String> renditionKeys = img.getRenditions() == null
+                ? Stream.empty()
+                : img.getRenditions().stream().map(ImageRendition::key);
+        return Stream.concat(Stream.of(img.getFilename(), img.getThumbnailFilename()), renditionKeys)
+                .filter(Objects::nonNull);
+    }
+
+    private ImageDto toDto(Image img, Map<String, String> urls) {
+        String signedUrl = urls.get(img.getFilename());
+        String signedThumbnailUrl = img.getThumbnailFilename() == null
+                ? signedUrl
+                : urls.get(img.getThumbnailFilename());
+        List<ImageRenditionDto> renditions = img.getRenditions() == null
+                ? List.of()
+                : img.getRenditions().stream()
+                        .sorted(Comparator.comparingInt(ImageRendition::width))
+                        .map(r -> new ImageRenditionDto(r.width(), urls.get(r.key())))
+                        .toList();
+        return new ImageDto(img.getId(), signedUrl, signedThumbnailUrl, img.getFilename(),
+                img.getThumbnailFilename(), img.getCreatedAt(), renditions);
+    }
+
     @Override
     public void deleteByIdForUser(long imageId, User user) {
         Image image = imageRepository.findById(imageId).orElseThrow(() ->
@@ -394,8 +592,15 @@ public class ImageService implements IImageService {
         String thumbnailFilename = image.getThumbnailFilename();
 
         deleteObject(filename, "image");
+        Set<String> renditionKeys = new LinkedHashSet<>();
         if (thumbnailFilename != null && !thumbnailFilename.isBlank()) {
-            deleteObject(thumbnailFilename, "image thumbnail");
+            renditionKeys.add(thumbnailFilename);
+        }
+        if (image.getRenditions() != null) {
+            image.getRenditions().forEach(r -> renditionKeys.add(r.key()));
+        }
+        for (String key : renditionKeys) {
+            deleteObject(key, "image thumbnail");
         }
 
         imageRepository.deleteById(imageId);
@@ -428,29 +633,56 @@ public class ImageService implements IImageService {
         return image;
     }
 
+    /**
+     * Streams the image from R2. A single byte range and If-None-Match are passed through, so R2 does
+     * the range and ETag checks and only the requested bytes cross the backend. Anything else in the
+     * Range header (several ranges, other units) is ignored and the whole image is returned.
+     */
     @Override
-    public ImageContent loadImageContentForUser(long imageId, User user) {
+    public ImageContent loadImageContentForUser(long imageId, User user, String range, String ifNoneMatch) {
         Image image = getImageForUser(imageId, user);
         String key = image.getFilename();
+        String downloadName = downloadName(key);
 
         GetObjectRequest getObjectRequest = GetObjectRequest.builder()
                 .bucket(bucket)
                 .key(key)
+                .range(range != null && SINGLE_BYTE_RANGE.matcher(range.trim()).matches() ? range.trim() : null)
+                .ifNoneMatch(ifNoneMatch)
                 .build();
 
         try {
             ResponseInputStream<GetObjectResponse> s3Object = r2Client.getObject(getObjectRequest);
-            Resource resource = new InputStreamResource(s3Object);
+            GetObjectResponse response = s3Object.response();
+            String contentType = response.contentType() != null
+                    ? response.contentType()
+                    : MediaTypeFactory.getMediaType(downloadName).map(MediaType::toString).orElse("image/png");
 
-            String downloadName = key.substring(key.lastIndexOf('/') + 1);
-            String contentType = "image/png";
-
-            return new ImageContent(resource, downloadName, contentType);
+            return new ImageContent(new InputStreamResource(s3Object), downloadName, contentType,
+                    response.contentLength(), response.eTag(), response.contentRange());
         } catch (S3Exception e) {
+            if (e.statusCode() == HttpStatus.NOT_MODIFIED.value()) {
+                String eTag = e.awsErrorDetails() == null ? null
+                        : e.awsErrorDetails().sdkHttpResponse().firstMatchingHeader(HttpHeaders.ETAG).orElse(null);
+                return ImageContent.notModified(downloadName, eTag != null ? eTag : ifNoneMatch);
+            }
+            if (e.statusCode() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+                throw new RangeNotSatisfiableException("Requested range is outside of the image");
+            }
             throw new RuntimeException("Failed to fetch image from storage", e);
         }
     }
 
+    @Override
+    public String signedDownloadUrl(long imageId, User user) {
+        Image image = getImageForUser(imageId, user);
+        return r2Service.generateDownloadUrl(image.getFilename(), downloadName(image.getFilename()));
+    }
+
+    private static String downloadName(String key) {
+        return key.substring(key.lastIndexOf('/') + 1);
+    }
+
 
 }
 
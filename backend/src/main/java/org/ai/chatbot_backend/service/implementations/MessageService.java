@@ -1,6 +1,7 @@
 package org.ai.chatbot_backend.service.implementations;
 
 import lombok.RequiredArgsConstructor;
+import org.ai.chatbot_backend.dto.CursorPageResult;
 import org.ai.chatbot_backend.dto.MessageDto;
 import org.ai.chatbot_backend.dto.PageResult;
 import org.ai.chatbot_backend.enums.ConversationRole;
@@ -8,6 +9,7 @@ import org.ai.chatbot_backend.model.Conversation;
 import org.ai.chatbot_backend.model.Message;
 import org.ai.chatbot_backend.repository.MessageRepository;
 import org.ai.chatbot_backend.service.interfaces.IMessageService;
+import org.ai.chatbot_backend.util.CursorCodec;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -51,6 +53,22 @@ public class MessageService implements IMessageService {
         return new PageResult<>(items, p.getTotalElements());
     }
 
+    @Override
+    public CursorPageResult<MessageDto> getMessagesForConversationAfter(long conversationId, String cursor, int pageSize, boolean includeTotal) {
+        if (pageSize < 1) pageSize = 50;
+
+        CursorCodec.Position after = CursorCodec.decode(cursor);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Message> messages = after == null
+                ? messageRepository.findFirstPage(conversationId, limit)
+                : messageRepository.findPageAfter(conversationId, after.timestamp(), after.id(), limit);
+
+        Long total = includeTotal ? messageRepository.countByConversationId(conversationId) : null;
+
+        return CursorCodec.page(messages, pageSize, Message::getTimestamp, Message::getId,
+                m -> new MessageDto(m.getId(), m.getRole().name(), m.getContent(), m.getTimestamp()), total);
+    }
+
     @Override
     public Message createAssistantMessage(String assistantReply, Conversation conversation) {
 
@@ -1,8 +1,11 @@
 package org.ai.chatbot_backend.service.implementations;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.ai.chatbot_backend.config.CacheNames;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
@@ -13,10 +16,18 @@ import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignReques
 
 import java.net.URI;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 @Service
+@RequiredArgsConstructor
 public class R2Service {
 
+    private final CacheManager cacheManager;
+
     @Value("${cloudflare.r2.account-id}")
     private String accountId;
 
@@ -29,6 +40,9 @@ public class R2Service {
     @Value("${cloudflare.r2.bucket}")
     private String bucketName;
 
+    @Value("${app.r2.signed-url.validity:15m}")
+    private Duration signatureDuration;
+
     private S3Presigner presigner;
 
     @PostConstruct
@@ -42,15 +56,49 @@ public class R2Service {
                 .build();
     }
 
-    @Cacheable(value = "signedUrls", key = "#key")
     public String generateSignedUrl(String key) {
-        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+        return generateSignedUrls(List.of(key)).get(key);
+    }
+
+    /**
+     * Signs a batch of keys, e.g. every image, thumbnail and rendition on a gallery page, with one cache
+     * lookup. Only the keys missing from the cache are signed. Cache entries expire a margin before the
+     * URL does (see ApplicationConfig), so a cached URL always has at least that long left.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, String> generateSignedUrls(Collection<String> keys) {
+        Cache<Object, Object> cache = (Cache<Object, Object>) cacheManager.getCache(CacheNames.SIGNED_URLS).getNativeCache();
+        Map<Object, Object> urls = cache.getAll(new LinkedHashSet<>(keys), missing -> {
+            Map<Object, Object> signed = new HashMap<>();
+            for (Object key : missing) {
+                signed.put(key, presign((String) key));
+            }
+            return signed;
+        });
+        return (Map<String, String>) (Map<?, ?>) urls;
+    }
+
+    /**
+     * Not cached: the URL makes R2 answer with an attachment Content-Disposition, used for downloads only.
+     */
+    public String generateDownloadUrl(String key, String filename) {
+        return presign(GetObjectRequest.builder()
                 .bucket(bucketName)
                 .key(key)
-                .build();
+                .responseContentDisposition("attachment; filename=\"" + filename + "\"")
+                .build());
+    }
+
+    private String presign(String key) {
+        return presign(GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build());
+    }
 
+    private String presign(GetObjectRequest getObjectRequest) {
         GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofMinutes(15))
+                .signatureDuration(signatureDuration)
                 .getObjectRequest(getObjectRequest)
                 .build();
 
@@ -21,7 +21,7 @@ public class RecipeFileService implements IRecipeFileService {
     private final UserRepository userRepository;
 
     @Override
-    public synchronized Long storeRecipeText(String recipeText) {
+    public Long storeRecipeText(String recipeText) {
         RecipeFile file = RecipeFile.builder()
                 .content(recipeText)
                 .build();
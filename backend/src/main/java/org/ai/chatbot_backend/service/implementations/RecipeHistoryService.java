@@ -3,6 +3,7 @@ package org.ai.chatbot_backend.service.implementations;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.ai.chatbot_backend.dto.CreateRecipeResult;
+import org.ai.chatbot_backend.dto.CursorPageResult;
 import org.ai.chatbot_backend.dto.PageResult;
 import org.ai.chatbot_backend.dto.RecipeHistoryDto;
 import org.ai.chatbot_backend.exception.ResourceNotFoundException;
@@ -14,18 +15,19 @@ import org.ai.chatbot_backend.repository.UserRepository;
 import org.ai.chatbot_backend.repository.RecipeFileRepository;
 import org.ai.chatbot_backend.service.interfaces.IRecipeHistoryService;
 import org.ai.chatbot_backend.service.interfaces.IRecipeFileService;
+import org.ai.chatbot_backend.util.CursorCodec;
+import org.ai.chatbot_backend.util.RecipeParser;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 public class RecipeHistoryService implements IRecipeHistoryService {
-    private static final Pattern TITLE_PATTERN = Pattern.compile("^###\\s*(.+)$", Pattern.MULTILINE);
-
     private final RecipeHistoryRepository recipeHistoryRepository;
     private final UserRepository userRepository;
     private final RecipeFileRepository recipeFileRepository;
@@ -70,11 +72,8 @@ public class RecipeHistoryService implements IRecipeHistoryService {
         if (markdown == null || markdown.isBlank()) {
             return "Untitled Recipe";
         }
-        Matcher matcher = TITLE_PATTERN.matcher(markdown);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
-        }
-        return "Untitled Recipe";
+        String title = RecipeParser.parse(markdown).title();
+        return title == null ? "Untitled Recipe" : title;
     }
 
     @Override
@@ -122,23 +121,33 @@ public class RecipeHistoryService implements IRecipeHistoryService {
         if (page < 1) page = 1;
         if (pageSize < 1) pageSize = 10;
 
-        List<RecipeHistory> entries = listForUser(userId);
-        if (entries == null || entries.isEmpty()) {
-            return new PageResult<>(List.of(), 0);
-        }
-
-        int total = entries.size();
-        int start = (page - 1) * pageSize;
-        if (start >= total) {
-            return new PageResult<>(List.of(), total);
-        }
-        int end = Math.min(start + pageSize, total);
+        Page<RecipeHistory> entries = recipeHistoryRepository.findByUser_IdOrderByCreatedAtDescIdDesc(
+                userId, PageRequest.of(page - 1, pageSize));
 
-        List<RecipeHistoryDto> pageItems = entries.subList(start, end)
-                .stream()
+        List<RecipeHistoryDto> pageItems = entries.stream()
                 .map(RecipeHistory::toDto)
                 .toList();
 
-        return new PageResult<>(List.copyOf(pageItems), total);
+        return new PageResult<>(pageItems, entries.getTotalElements());
+    }
+
+    /**
+     * Keyset pagination on (createdAt, id): deep pages cost the same as the first one.
+     */
+    @Override
+    public CursorPageResult<RecipeHistoryDto> getHistoryForUserAfter(Long userId, String cursor, int pageSize, boolean includeTotal) {
+        if (pageSize < 1) pageSize = 10;
+
+        CursorCodec.Position after = CursorCodec.decode(cursor);
+        // one extra row tells whether there is a next page
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<RecipeHistory> entries = after == null
+                ? recipeHistoryRepository.findFirstPage(userId, limit)
+                : recipeHistoryRepository.findPageAfter(userId, after.timestamp(), after.id(), limit);
+
+        Long total = includeTotal ? recipeHistoryRepository.countByUser_Id(userId) : null;
+
+        return CursorCodec.page(entries, pageSize, RecipeHistory::getCreatedAt, RecipeHistory::getId,
+                RecipeHistory::toDto, total);
     }
 }
@@ -1,40 +1,107 @@
 package org.ai.chatbot_backend.service.implementations;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openai.errors.OpenAIException;
+import com.openai.errors.RateLimitException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.ai.chatbot_backend.concurrency.Bulkhead;
+import org.ai.chatbot_backend.config.CacheNames;
 import org.ai.chatbot_backend.dto.CreateRecipeResult;
 import org.ai.chatbot_backend.dto.RecipeResponse;
 import org.ai.chatbot_backend.dto.RecipeRequest;
+import org.ai.chatbot_backend.dto.RecipeStreamEvent;
 import org.ai.chatbot_backend.exception.InappropriateRequestRefusalException;
+import org.ai.chatbot_backend.exception.ProviderBusyException;
 import org.ai.chatbot_backend.exception.ResourceNotFoundException;
 import org.ai.chatbot_backend.service.interfaces.IRecipeService;
+import org.ai.chatbot_backend.util.JsonRepair;
+import org.ai.chatbot_backend.util.PromptNormalizer;
+import org.ai.chatbot_backend.util.RecipeParser;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.ai.converter.BeanOutputConverter;
+import org.springframework.ai.openaisdk.OpenAiSdkChatModel;
+import org.springframework.ai.openaisdk.OpenAiSdkChatOptions;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class RecipeService implements IRecipeService {
     private final ChatModel chatModel;
     private final RecipeFileService recipeFileService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Bulkhead chatBulkhead;
+    private final CacheManager cacheManager;
+    private final FoodTopicClassifier foodTopicClassifier;
+    private final MeterRegistry meterRegistry;
 
     @Value("${app.backend-base-url}")
     private String backendBaseUrl;
 
-    private static final Pattern RECIPE_PATTERN = Pattern.compile(
-            "(?s)^###\\s+.+?\\R+####\\s+Ingredients:.*?####\\s+Instructions:",
-            Pattern.CASE_INSENSITIVE
-    );
+    @Value("${app.cache.recipes.enabled:true}")
+    private boolean recipeCacheEnabled;
 
-    private static Prompt getSystemPrompt(String ingredients, String cuisine, String dietaryRestrictions) {
+    // response_format json_schema; off for deployments whose model or API version does not support it
+    @Value("${app.recipes.native-structured-output:true}")
+    private boolean nativeStructuredOutput;
+
+    private static final String REFUSAL_MESSAGE = "I'm sorry, but I can't assist with that request.";
+
+    // JSON schema of RecipeResponse for the request, and the matching parser for the reply
+    private static final BeanOutputConverter<RecipeResponse> RECIPE_OUTPUT = new BeanOutputConverter<>(RecipeResponse.class);
+
+    private static final String RECIPE_EXAMPLE = """
+            ### Lemon Garlic Butter Baked Fish
+
+            #### Ingredients:
+            - 4 fish fillets (such as cod, tilapia, or haddock)
+            - 3 tablespoons unsalted butter, melted
+            - 3 cloves garlic, minced
+            - 1 lemon (zested and juiced)
+            - 1 teaspoon dried parsley
+            - Salt and pepper to taste
+
+            #### Instructions:
+            1. Preheat oven to 400°F (200°C)...
+            2. Prepare sauce...
+            3. Bake...
+            """;
+
+    private record RecipeInput(String ingredients, String cuisine, String dietaryRestrictions) {
+
+        String cacheKey() {
+            return PromptNormalizer.normalizeList(ingredients)
+                    + "|" + PromptNormalizer.normalize(cuisine)
+                    + "|" + PromptNormalizer.normalizeList(dietaryRestrictions);
+        }
+
+        Map<String, Object> templateParams() {
+            return Map.of(
+                    "ingredients", ingredients,
+                    "cuisine", cuisine,
+                    "dietaryRestrictions", dietaryRestrictions,
+                    "example", RECIPE_EXAMPLE
+            );
+        }
+    }
+
+    /**
+     * The schema goes to the provider as the response format, the model then cannot answer outside it.
+     * Without native structured output it is pasted into the prompt as format instructions instead.
+     */
+    private Prompt getSystemPrompt(RecipeInput input) {
         var template = """
             You are a helpful and professional chef assistant.
             Create a recipe using the following information:
@@ -43,74 +110,112 @@ public class RecipeService implements IRecipeService {
             **Cuisine:** {cuisine}
             **Dietary restrictions:** {dietaryRestrictions}
 
-            Respond **only in valid JSON** with these fields:
+            The response has two fields:
             - "title": the recipe title
             - "recipe_markdown": the full recipe formatted exactly like this example:
-              ### Lemon Garlic Butter Baked Fish
-
-              #### Ingredients:
-              - 4 fish fillets (such as cod, tilapia, or haddock)
-              - 3 tablespoons unsalted butter, melted
-              - 3 cloves garlic, minced
-              - 1 lemon (zested and juiced)
-              - 1 teaspoon dried parsley
-              - Salt and pepper to taste
-
-              #### Instructions:
-              1. Preheat oven to 400°F (200°C)...
-              2. Prepare sauce...
-              3. Bake...
-
-            Make sure the JSON is valid. No extra commentary, greetings or text outside the JSON.
-            If any ingredients are nonsensical, point it out politely and ask the user for clarification.
+            {example}
+            If any ingredients are nonsensical, point it out politely in "recipe_markdown" and ask the user for clarification.
+
+            {format}
             """;
 
-        PromptTemplate promptTemplate = new PromptTemplate(template);
-        Map<String, Object> params = Map.of(
-                "ingredients", ingredients,
-                "cuisine", cuisine,
-                "dietaryRestrictions", dietaryRestrictions
-        );
-        return promptTemplate.create(params);
+        Map<String, Object> params = new HashMap<>(input.templateParams());
+        if (!nativeStructuredOutput) {
+            params.put("format", RECIPE_OUTPUT.getFormat());
+            return new PromptTemplate(template).create(params);
+        }
+
+        params.put("format", "");
+        OpenAiSdkChatOptions options = OpenAiSdkChatOptions.builder()
+                .responseFormat(OpenAiSdkChatModel.ResponseFormat.builder()
+                        .type(OpenAiSdkChatModel.ResponseFormat.Type.JSON_SCHEMA)
+                        .jsonSchema(RECIPE_OUTPUT.getJsonSchema())
+                        .build())
+                .build();
+        return new PromptTemplate(template).create(params, options);
     }
 
-    private String extractJsonBlock(String text) {
-        int start = text.indexOf('{');
-        int end = text.lastIndexOf('}');
-        if (start != -1 && end != -1 && end > start) {
-            return text.substring(start, end + 1);
-        }
-        return text;
+    /**
+     * Plain markdown instead of JSON for streaming, so sections can be parsed while they arrive.
+     */
+    private static String getStreamingPrompt(RecipeInput input) {
+        var template = """
+            You are a helpful and professional chef assistant.
+            Create a recipe using the following information:
+
+            **Ingredients:** {ingredients}
+            **Cuisine:** {cuisine}
+            **Dietary restrictions:** {dietaryRestrictions}
+
+            Respond only with the recipe in markdown, formatted exactly like this example:
+            {example}
+            No code fences, commentary, greetings or text before or after the recipe.
+            If any ingredients are nonsensical, point it out politely and ask the user for clarification instead.
+            """;
+
+        return new PromptTemplate(template).render(input.templateParams());
     }
 
-    private boolean isValidRecipeFormat(String recipeText) {
-        if (recipeText == null || recipeText.isBlank()) {
-            return false;
-        }
+    @Override
+    public CreateRecipeResult createRecipe(RecipeRequest request, Long userId) {
+        RecipeInput input = validate(request);
+        return toResult(cachedRecipe(input), userId);
+    }
 
-        if (recipeText.toLowerCase().contains("i cannot") ||
-                recipeText.toLowerCase().contains("i'm sorry") ||
-                recipeText.toLowerCase().contains("unable to") ||
-                recipeText.toLowerCase().contains("clarify") ||
-                recipeText.toLowerCase().contains("illegal") ||
-                recipeText.toLowerCase().contains("inappropriate")) {
-            return false;
-        }
+    /**
+     * Generates the recipe as a stream of its title, ingredients and steps, each sent as soon as its line
+     * is complete. Nothing is sent until the reply has a title and both section labels with no refusal
+     * before them, so a refusal or clarification question ends the stream with only the error. Once the
+     * model is done the reply is checked, cached and, for a signed-in user, stored as a file;
+     * {@code onComplete} then receives the result and a last {@code DONE} event carries it. A cached
+     * recipe is replayed without calling the model.
+     */
+    @Override
+    public Flux<RecipeStreamEvent> streamRecipe(RecipeRequest request, Long userId, Consumer<CreateRecipeResult> onComplete) {
+        RecipeInput input = validate(request);
+        Cache cache = recipeCache();
 
-        if (RECIPE_PATTERN.matcher(recipeText).find()) {
-            return true;
+        String cached = cache == null ? null : cache.get(input.cacheKey(), String.class);
+        if (cached != null) {
+            List<RecipeStreamEvent> events = new ArrayList<>();
+            RecipeParser parser = new RecipeParser(collectInto(events));
+            parser.accept(cached);
+            parser.finish();
+            return Flux.fromIterable(events).concatWith(complete(cached, userId, onComplete));
         }
 
-        String lower = recipeText.toLowerCase();
-        boolean hasTitle = recipeText.trim().startsWith("###");
-        boolean hasIngredients = lower.contains("ingredients");
-        boolean hasInstructions = lower.contains("instructions");
+        return Flux.defer(() -> {
+            List<RecipeStreamEvent> pending = new ArrayList<>();
+            RecipeParser parser = new RecipeParser(collectInto(pending));
+            StringBuilder reply = new StringBuilder();
+
+            Flux<RecipeStreamEvent> sections = chatBulkhead.stream(() -> chatModel.stream(getStreamingPrompt(input)))
+                    .filter(token -> token != null && !token.isEmpty())
+                    .concatMapIterable(token -> {
+                        reply.append(token);
+                        parser.accept(token);
+                        return parser.isRecipeSoFar() ? drain(pending) : List.<RecipeStreamEvent>of();
+                    });
+
+            Flux<RecipeStreamEvent> end = Flux.defer(() -> {
+                RecipeParser.ParsedRecipe recipe = parser.finish();
+                if (recipe.format() == RecipeParser.Format.NONE) {
+                    // held sections are dropped, sent ones are discarded by the client on the error event
+                    return Flux.error(new InappropriateRequestRefusalException(REFUSAL_MESSAGE));
+                }
+                Flux<RecipeStreamEvent> lastLine = Flux.fromIterable(drain(pending));
+                String recipeMarkdown = stripCodeFence(reply.toString());
+                if (cache != null) {
+                    cache.put(input.cacheKey(), recipeMarkdown);
+                }
+                return lastLine.concatWith(complete(recipeMarkdown, userId, onComplete));
+            });
 
-        return hasTitle && hasIngredients && hasInstructions;
+            return sections.concatWith(end);
+        }).onErrorMap(OpenAIException.class, RecipeService::providerFailure);
     }
 
-    @Override
-    public CreateRecipeResult createRecipe(RecipeRequest request, Long userId) {
+    private RecipeInput validate(RecipeRequest request) {
         if (request == null) {
             throw new InappropriateRequestRefusalException("Ingredients are required");
         }
@@ -130,38 +235,154 @@ public class RecipeService implements IRecipeService {
             dietaryRestrictions = "";
         }
 
-        Prompt prompt = getSystemPrompt(ingredients, cuisine, dietaryRestrictions);
+        if (foodTopicClassifier.isOffTopic(FoodTopicClassifier.SOURCE_RECIPE,
+                String.join("\n", ingredients, cuisine, dietaryRestrictions))) {
+            throw new InappropriateRequestRefusalException(REFUSAL_MESSAGE);
+        }
 
-        try {
-            String rawResponse = chatModel.call(prompt).getResult().getOutput().getText();
-            if (rawResponse == null || rawResponse.isBlank()) {
-                throw new ResourceNotFoundException("No recipe");
+        return new RecipeInput(ingredients, cuisine, dietaryRestrictions);
+    }
+
+    private CreateRecipeResult toResult(String recipeMarkdown, Long userId) {
+        // cached recipes are shared, every signed-in user still gets their own file
+        Long id = null;
+        String downloadUrl = null;
+        if (userId != null) {
+            id = recipeFileService.storeRecipeText(recipeMarkdown);
+            recipeFileService.attachFileToUser(id, userId);
+            downloadUrl = recipeFileService.getDownloadMarkdown(id, backendBaseUrl);
+        }
+
+        return new CreateRecipeResult(recipeMarkdown, id, downloadUrl);
+    }
+
+    // file storage and history are blocking JPA calls, kept off the thread delivering model tokens
+    private Mono<RecipeStreamEvent> complete(String recipeMarkdown, Long userId, Consumer<CreateRecipeResult> onComplete) {
+        return Mono.fromCallable(() -> {
+                    CreateRecipeResult result = toResult(recipeMarkdown, userId);
+                    onComplete.accept(result);
+                    return RecipeStreamEvent.done(result);
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static RecipeParser.Listener collectInto(List<RecipeStreamEvent> events) {
+        return new RecipeParser.Listener() {
+            @Override
+            public void onTitle(String title) {
+                events.add(RecipeStreamEvent.title(title));
+            }
+
+            @Override
+            public void onIngredient(String ingredient) {
+                events.add(RecipeStreamEvent.ingredient(ingredient));
+            }
+
+            @Override
+            public void onStep(String step) {
+                events.add(RecipeStreamEvent.step(step));
             }
-            String jsonResponse = extractJsonBlock(rawResponse);
+        };
+    }
+
+    private static List<RecipeStreamEvent> drain(List<RecipeStreamEvent> events) {
+        List<RecipeStreamEvent> drained = List.copyOf(events);
+        events.clear();
+        return drained;
+    }
+
+    private static String stripCodeFence(String text) {
+        String recipe = text.strip();
+        if (recipe.startsWith("```")) {
+            int firstLineEnd = recipe.indexOf('\n');
+            recipe = firstLineEnd < 0 ? "" : recipe.substring(firstLineEnd + 1);
+        }
+        if (recipe.endsWith("```")) {
+            recipe = recipe.substring(0, recipe.length() - 3);
+        }
+        return recipe.strip();
+    }
+
+    private Cache recipeCache() {
+        return recipeCacheEnabled ? cacheManager.getCache(CacheNames.RECIPE_RESPONSES) : null;
+    }
+
+    private String cachedRecipe(RecipeInput input) {
+        Cache cache = recipeCache();
+        if (cache == null) {
+            return generateRecipe(input);
+        }
+
+        String key = input.cacheKey();
+        String recipeMarkdown = cache.get(key, String.class);
+        if (recipeMarkdown == null) {
+            recipeMarkdown = generateRecipe(input);
+            cache.put(key, recipeMarkdown);
+        }
+        return recipeMarkdown;
+    }
 
-            RecipeResponse recipeResponse = objectMapper.readValue(jsonResponse, RecipeResponse.class);
+    private String generateRecipe(RecipeInput input) {
+        Prompt prompt = getSystemPrompt(input);
 
-            if (!isValidRecipeFormat(recipeResponse.getRecipeMarkdown())) {
-                throw new InappropriateRequestRefusalException(
-                        "I'm sorry, but I can't assist with that request."
-                );
+        try {
+            String rawResponse = chatBulkhead.call(() -> chatModel.call(prompt)).getResult().getOutput().getText();
+            if (rawResponse == null || rawResponse.isBlank()) {
+                throw new ResourceNotFoundException("No recipe");
             }
+            RecipeResponse recipeResponse = parseRecipe(rawResponse);
 
-            Long id = null;
-            String downloadUrl = null;
-            if (userId != null) {
-                id = recipeFileService.storeRecipeText(recipeResponse.getRecipeMarkdown());
-                recipeFileService.attachFileToUser(id, userId);
-                downloadUrl = recipeFileService.getDownloadMarkdown(id, backendBaseUrl);
+            if (RecipeParser.parse(recipeResponse.getRecipeMarkdown()).format() == RecipeParser.Format.NONE) {
+                throw new InappropriateRequestRefusalException(REFUSAL_MESSAGE);
             }
 
-            return new CreateRecipeResult(recipeResponse.getRecipeMarkdown(), id, downloadUrl);
+            return recipeResponse.getRecipeMarkdown();
         } catch (OpenAIException e) {
-            throw new InappropriateRequestRefusalException(
-                    "I'm sorry, but I can't assist with that request."
-            );
-        } catch (JsonProcessingException e) {
+            throw providerFailure(e);
+        }
+    }
+
+    private static RuntimeException providerFailure(OpenAIException e) {
+        if (e instanceof RateLimitException) {
+            return new ProviderBusyException("The assistant is busy right now, please try again in a moment.");
+        }
+        return new InappropriateRequestRefusalException(REFUSAL_MESSAGE);
+    }
+
+    /**
+     * A reply the converter rejects gets one local repair before it counts as failed. Every outcome is
+     * counted under recipe.output.parse, a failure means the user has to ask again for a new recipe.
+     */
+    private RecipeResponse parseRecipe(String rawResponse) {
+        try {
+            RecipeResponse recipeResponse = convert(rawResponse);
+            countParse("parsed");
+            return recipeResponse;
+        } catch (RuntimeException e) {
+            String repaired = JsonRepair.repairObject(rawResponse);
+            if (repaired != null) {
+                try {
+                    RecipeResponse recipeResponse = convert(repaired);
+                    countParse("repaired");
+                    return recipeResponse;
+                } catch (RuntimeException ignored) {
+                    // reported with the original error below
+                }
+            }
+            countParse("failed");
             throw new RuntimeException("Failed to parse recipe JSON: " + e.getMessage(), e);
         }
     }
+
+    private static RecipeResponse convert(String json) {
+        RecipeResponse recipeResponse = RECIPE_OUTPUT.convert(json);
+        if (recipeResponse == null) {
+            throw new IllegalStateException("Empty recipe JSON");
+        }
+        return recipeResponse;
+    }
+
+    private void countParse(String outcome) {
+        meterRegistry.counter("recipe.output.parse", "outcome", outcome).increment();
+    }
 }
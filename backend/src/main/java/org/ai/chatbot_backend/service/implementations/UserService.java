@@ -10,6 +10,7 @@ import org.ai.chatbot_backend.enums.UserRole;
 import org.ai.chatbot_backend.model.PasswordResetToken;
 import org.ai.chatbot_backend.model.User;
 import org.ai.chatbot_backend.repository.UserRepository;
+import org.ai.chatbot_backend.security.PrincipalCache;
 import org.ai.chatbot_backend.service.interfaces.IUserService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -29,6 +30,7 @@ public class UserService implements IUserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final PasswordResetTokenService passwordResetTokenService;
+    private final PrincipalCache principalCache;
 
     @Override
     public void saveUser(UserDto userDto) {
@@ -112,7 +114,9 @@ public class UserService implements IUserService {
         }
 
         user.setPassword(passwordEncoder.encode(password));
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        principalCache.evict(user);
     }
 
     public void validatePassword(String password) {
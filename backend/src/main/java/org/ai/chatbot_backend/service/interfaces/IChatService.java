@@ -1,10 +1,13 @@
 package org.ai.chatbot_backend.service.interfaces;
 
 import org.ai.chatbot_backend.dto.AssistantMessageDto;
+import org.ai.chatbot_backend.dto.AssistantMessageStream;
 import org.ai.chatbot_backend.dto.ConversationDto;
+import org.ai.chatbot_backend.dto.CursorPageResult;
 import org.ai.chatbot_backend.dto.MessageDto;
 import org.ai.chatbot_backend.dto.PageResult;
 import org.ai.chatbot_backend.model.User;
+import reactor.core.publisher.Flux;
 
 public interface IChatService {
 
@@ -16,14 +19,26 @@ public interface IChatService {
 
     AssistantMessageDto chat(User user, String message, long conversationId);
 
+    AssistantMessageStream streamChat(User user, String message, long conversationId);
+
     String getResponse(String userPrompt);
 
+    Flux<String> streamResponse(String userPrompt);
+
     AssistantMessageDto createGuestConversation(String message);
 
+    AssistantMessageStream streamGuestConversation(String message);
+
+    AssistantMessageStream streamNewConversation(User user, String message);
+
     PageResult<MessageDto> loadConversation(User user, long conversationId, int page, int pageSize);
 
+    CursorPageResult<MessageDto> loadConversationAfter(User user, long conversationId, String cursor, int pageSize, boolean includeTotal);
+
     PageResult<ConversationDto> loadConversations(User user, int page, int pageSize);
 
+    CursorPageResult<ConversationDto> loadConversationsAfter(User user, String cursor, int pageSize, boolean includeTotal);
+
     ConversationDto renameConversation(User user, long conversationId, String title);
 
     void deleteConversation(User user, long conversationId);
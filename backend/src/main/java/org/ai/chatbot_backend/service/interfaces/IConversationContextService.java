@@ -0,0 +1,9 @@
+package org.ai.chatbot_backend.service.interfaces;
+
+public interface IConversationContextService {
+    String buildHistory(long conversationId);
+
+    void recordTurn(long conversationId, String userMessage, String assistantReply);
+
+    void evict(long conversationId);
+}
@@ -3,9 +3,13 @@ package org.ai.chatbot_backend.service.interfaces;
 import jakarta.transaction.Transactional;
 import org.ai.chatbot_backend.model.Conversation;
 import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.repository.projection.ConversationListItem;
+import org.ai.chatbot_backend.util.CursorCodec;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.data.domain.Page;
 
+import java.util.List;
+
 public interface IConversationService {
     Conversation createConversation(User user);
 
@@ -20,5 +24,15 @@ public interface IConversationService {
 
     Page<Conversation> findByUser(User user, int page, int pageSize);
 
+    Page<ConversationListItem> findListItemsByUser(User user, int page, int pageSize);
+
+    List<ConversationListItem> findListItemsByUserAfter(User user, CursorCodec.Position after, int limit);
+
+    long countByUser(User user);
+
     String createTitle(ChatModel model, String userPrompt);
+
+    void applyGeneratedTitle(long conversationId, String title);
+
+    boolean applySummary(long conversationId, String summary, long throughId, long expectedThroughId);
 }
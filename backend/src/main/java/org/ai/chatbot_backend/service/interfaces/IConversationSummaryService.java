@@ -0,0 +1,7 @@
+package org.ai.chatbot_backend.service.interfaces;
+
+public interface IConversationSummaryService {
+    void summarizeIfNeededAsync(long conversationId);
+
+    boolean summarizeIfNeeded(long conversationId);
+}
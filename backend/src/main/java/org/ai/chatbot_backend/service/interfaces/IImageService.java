@@ -5,17 +5,24 @@ import org.ai.chatbot_backend.dto.ImageContent;
 import org.ai.chatbot_backend.model.Image;
 import org.ai.chatbot_backend.model.User;
 import org.ai.chatbot_backend.dto.ImageDto;
+import org.ai.chatbot_backend.dto.CursorPageResult;
 import org.ai.chatbot_backend.dto.PageResult;
 
 public interface IImageService {
     String generateFoodImageFromParams(FoodImageRequest request);
 
+    ImageDto generateFoodImageForUser(FoodImageRequest request, Long userId) throws Exception;
+
     PageResult<ImageDto> getImages(User user, int page, int pageSize);
 
+    CursorPageResult<ImageDto> getImagesAfter(User user, String cursor, int pageSize, boolean includeTotal);
+
     void deleteByIdForUser(long imageId, User user);
 
     Image getImageForUser(long imageId, User user);
 
-    ImageContent loadImageContentForUser(long imageId, User user);
+    ImageContent loadImageContentForUser(long imageId, User user, String range, String ifNoneMatch);
+
+    String signedDownloadUrl(long imageId, User user);
 
 }
@@ -1,5 +1,6 @@
 package org.ai.chatbot_backend.service.interfaces;
 
+import org.ai.chatbot_backend.dto.CursorPageResult;
 import org.ai.chatbot_backend.dto.MessageDto;
 import org.ai.chatbot_backend.dto.PageResult;
 import org.ai.chatbot_backend.model.Conversation;
@@ -11,4 +12,6 @@ public interface IMessageService {
     Message createAssistantMessage(String assistantReply, Conversation conversation);
 
     PageResult<MessageDto> getMessagesForConversationPaged(long conversationId, int page, int pageSize);
+
+    CursorPageResult<MessageDto> getMessagesForConversationAfter(long conversationId, String cursor, int pageSize, boolean includeTotal);
 }
@@ -1,6 +1,7 @@
 package org.ai.chatbot_backend.service.interfaces;
 
 import org.ai.chatbot_backend.dto.CreateRecipeResult;
+import org.ai.chatbot_backend.dto.CursorPageResult;
 import org.ai.chatbot_backend.dto.PageResult;
 import org.ai.chatbot_backend.dto.RecipeHistoryDto;
 import org.ai.chatbot_backend.model.RecipeHistory;
@@ -15,4 +16,6 @@ public interface IRecipeHistoryService {
     Optional<RecipeHistory> findById(Long id);
 
     PageResult<RecipeHistoryDto> getHistoryForUserPaged(Long userId, int page, int pageSize);
+
+    CursorPageResult<RecipeHistoryDto> getHistoryForUserAfter(Long userId, String cursor, int pageSize, boolean includeTotal);
 }
@@ -2,7 +2,13 @@ package org.ai.chatbot_backend.service.interfaces;
 
 import org.ai.chatbot_backend.dto.CreateRecipeResult;
 import org.ai.chatbot_backend.dto.RecipeRequest;
+import org.ai.chatbot_backend.dto.RecipeStreamEvent;
+import reactor.core.publisher.Flux;
+
+import java.util.function.Consumer;
 
 public interface IRecipeService {
     CreateRecipeResult createRecipe(RecipeRequest request, Long userId);
+
+    Flux<RecipeStreamEvent> streamRecipe(RecipeRequest request, Long userId, Consumer<CreateRecipeResult> onComplete);
 }
@@ -0,0 +1,70 @@
+package org.ai.chatbot_backend.util;
+
+import org.ai.chatbot_backend.dto.CursorPageResult;
+import org.ai.chatbot_backend.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Opaque keyset cursors: the sort timestamp and id of the last item of a page, base64url encoded.
+ */
+public final class CursorCodec {
+    private static final char SEPARATOR = '|';
+
+    private CursorCodec() {
+    }
+
+    public record Position(LocalDateTime timestamp, long id) {
+    }
+
+    public static String encode(LocalDateTime timestamp, long id) {
+        String raw = timestamp.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a blank cursor, meaning the first page.
+     */
+    public static Position decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            return new Position(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Builds a page from {@code rows} fetched with a limit of {@code pageSize + 1}: the extra row only
+     * signals that a next page exists.
+     */
+    public static <E, T> CursorPageResult<T> page(List<E> rows,
+                                                  int pageSize,
+                                                  Function<E, LocalDateTime> timestamp,
+                                                  ToLongFunction<E> id,
+                                                  Function<E, T> mapper,
+                                                  Long total) {
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            E last = rows.get(pageSize - 1);
+            nextCursor = encode(timestamp.apply(last), id.applyAsLong(last));
+        }
+        return new CursorPageResult<>(rows.stream().map(mapper).toList(), nextCursor, total);
+    }
+}
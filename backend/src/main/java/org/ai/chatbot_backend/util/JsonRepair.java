@@ -0,0 +1,108 @@
+package org.ai.chatbot_backend.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Local fix-up for a JSON object that a model reply almost got right, tried once before giving up on the
+ * reply. A single pass from the first '{' to its matching '}' (string-aware, so braces inside values or
+ * after the object do not matter) that escapes raw control characters inside strings, drops trailing
+ * commas and stray closing brackets. A truncated object is not closed: a half recipe would parse and
+ * be cached as if it were whole. Anything else is left for the parser to reject.
+ */
+public final class JsonRepair {
+    static final int MAX_LENGTH = 64 * 1024;
+
+    private JsonRepair() {
+    }
+
+    /**
+     * The repaired object, or null when there is no object to repair, the text ends before the object
+     * does, or the text is over the length bound.
+     */
+    public static String repairObject(String text) {
+        if (text == null || text.length() > MAX_LENGTH) {
+            return null;
+        }
+        int start = text.indexOf('{');
+        if (start < 0) {
+            return null;
+        }
+
+        StringBuilder out = new StringBuilder(text.length() - start + 8);
+        Deque<Character> closers = new ArrayDeque<>();
+        boolean inString = false;
+        boolean escaped = false;
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                    out.append(c);
+                } else if (c == '\\') {
+                    escaped = true;
+                    out.append(c);
+                } else if (c == '"') {
+                    inString = false;
+                    out.append(c);
+                } else if (c < 0x20) {
+                    appendEscaped(out, c);
+                } else {
+                    out.append(c);
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    out.append(c);
+                }
+                case '{' -> {
+                    closers.push('}');
+                    out.append(c);
+                }
+                case '[' -> {
+                    closers.push(']');
+                    out.append(c);
+                }
+                case '}', ']' -> {
+                    if (closers.isEmpty()) {
+                        continue;
+                    }
+                    dropTrailingComma(out);
+                    // a mismatched closer still ends the innermost open container
+                    out.append(closers.pop());
+                    if (closers.isEmpty()) {
+                        return out.toString();
+                    }
+                }
+                default -> out.append(c);
+            }
+        }
+
+        // truncated reply: the text ended inside a string or an open container
+        return null;
+    }
+
+    private static void appendEscaped(StringBuilder out, char c) {
+        switch (c) {
+            case '\n' -> out.append("\\n");
+            case '\r' -> out.append("\\r");
+            case '\t' -> out.append("\\t");
+            case '\b' -> out.append("\\b");
+            case '\f' -> out.append("\\f");
+            default -> out.append(String.format("\\u%04x", (int) c));
+        }
+    }
+
+    private static void dropTrailingComma(StringBuilder out) {
+        int i = out.length() - 1;
+        while (i >= 0 && Character.isWhitespace(out.charAt(i))) {
+            i--;
+        }
+        if (i >= 0 && out.charAt(i) == ',') {
+            out.deleteCharAt(i);
+        }
+    }
+}
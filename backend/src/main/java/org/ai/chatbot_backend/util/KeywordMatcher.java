@@ -0,0 +1,230 @@
+package org.ai.chatbot_backend.util;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Aho-Corasick automaton over normalized text, compiled once for a keyword list. {@link #findFirst}
+ * scans a value in one pass regardless of the number of keywords.
+ * <p>
+ * Keywords and text go through the same {@link #normalize}: lower case, accents removed, leetspeak
+ * digits and symbols inside words mapped to letters, letters spelled out one by one joined, everything
+ * else collapsed to single spaces. Keywords are matched as whole words, so they are padded with spaces
+ * and the text is too; a phrase keyword like "tape measure" matches across one space.
+ */
+public final class KeywordMatcher {
+    // 0 is the space, 1..26 letters, 27..36 digits
+    private static final int ALPHABET = 37;
+    private static final int MIN_SPELLED_OUT_LETTERS = 3;
+
+    private final int[][] transitions;
+    // index of a keyword ending at the state (directly or via a suffix), -1 if none
+    private final int[] matches;
+    private final List<String> keywords;
+
+    private KeywordMatcher(int[][] transitions, int[] matches, List<String> keywords) {
+        this.transitions = transitions;
+        this.matches = matches;
+        this.keywords = keywords;
+    }
+
+    public static KeywordMatcher compile(Collection<String> keywords) {
+        List<String> patterns = new ArrayList<>();
+        List<String> originals = new ArrayList<>();
+        for (String keyword : keywords) {
+            String normalized = normalize(keyword);
+            if (normalized.length() > 2) {
+                patterns.add(normalized);
+                originals.add(keyword);
+            }
+        }
+
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> output = new ArrayList<>();
+        trie.add(newState());
+        output.add(-1);
+        for (int k = 0; k < patterns.size(); k++) {
+            int state = 0;
+            String pattern = patterns.get(k);
+            for (int i = 0; i < pattern.length(); i++) {
+                int symbol = symbol(pattern.charAt(i));
+                if (trie.get(state)[symbol] < 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(newState());
+                    output.add(-1);
+                }
+                state = trie.get(state)[symbol];
+            }
+            if (output.get(state) < 0) {
+                output.set(state, k);
+            }
+        }
+
+        // breadth first: fill missing transitions from the failure state, so scanning never backtracks
+        int[][] transitions = trie.toArray(int[][]::new);
+        int[] matches = output.stream().mapToInt(Integer::intValue).toArray();
+        int[] failure = new int[transitions.length];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int next = transitions[0][symbol];
+            if (next < 0) {
+                transitions[0][symbol] = 0;
+            } else {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            if (matches[state] < 0) {
+                matches[state] = matches[failure[state]];
+            }
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int next = transitions[state][symbol];
+                if (next < 0) {
+                    transitions[state][symbol] = transitions[failure[state]][symbol];
+                } else {
+                    failure[next] = transitions[failure[state]][symbol];
+                    queue.add(next);
+                }
+            }
+        }
+        return new KeywordMatcher(transitions, matches, List.copyOf(originals));
+    }
+
+    /**
+     * Returns the first keyword (as it was given to {@link #compile}) found in the value, or null.
+     */
+    public String findFirst(String value) {
+        if (value == null || value.isBlank() || keywords.isEmpty()) {
+            return null;
+        }
+        String text = normalize(value);
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state][symbol(text.charAt(i))];
+            if (matches[state] >= 0) {
+                return keywords.get(matches[state]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * All distinct keywords found in the value, in the order they end in the text. Where keywords overlap
+     * at the same position only the longest one is reported.
+     */
+    public List<String> findAll(String value) {
+        if (value == null || value.isBlank() || keywords.isEmpty()) {
+            return List.of();
+        }
+        String text = normalize(value);
+        Set<String> found = new LinkedHashSet<>();
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state][symbol(text.charAt(i))];
+            if (matches[state] >= 0) {
+                found.add(keywords.get(matches[state]));
+            }
+        }
+        return List.copyOf(found);
+    }
+
+    public int size() {
+        return keywords.size();
+    }
+
+    /**
+     * Normalized form of the value, padded with one space on each side. Only a-z, 0-9 and single spaces
+     * remain.
+     */
+    public static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFKD);
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        boolean hasLetter = false;
+        for (int i = 0; i <= decomposed.length(); i++) {
+            char c = i < decomposed.length() ? decomposed.charAt(i) : ' ';
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            char lower = Character.toLowerCase(c);
+            if ((lower >= 'a' && lower <= 'z') || (lower >= '0' && lower <= '9') || lower == '@' || lower == '$') {
+                word.append(lower);
+                hasLetter |= lower >= 'a' && lower <= 'z';
+            } else if (!word.isEmpty()) {
+                String finished = hasLetter ? unleet(word) : word.toString();
+                if (hasLetter || Character.isDigit(finished.charAt(0))) {
+                    words.add(finished.replace("@", "").replace("$", ""));
+                }
+                word.setLength(0);
+                hasLetter = false;
+            }
+        }
+
+        StringBuilder out = new StringBuilder(value.length() + 2).append(' ');
+        int i = 0;
+        while (i < words.size()) {
+            int run = i;
+            while (run < words.size() && isSingleLetter(words.get(run))) {
+                run++;
+            }
+            if (run - i >= MIN_SPELLED_OUT_LETTERS) {
+                // "h a m m e r", "h.a.m.m.e.r"
+                words.subList(i, run).forEach(out::append);
+                out.append(' ');
+                i = run;
+            } else {
+                String w = words.get(i++);
+                if (!w.isEmpty()) {
+                    out.append(w).append(' ');
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private static String unleet(StringBuilder word) {
+        char[] chars = new char[word.length()];
+        for (int i = 0; i < chars.length; i++) {
+            char c = word.charAt(i);
+            chars[i] = switch (c) {
+                case '0' -> 'o';
+                case '1' -> 'i';
+                case '3' -> 'e';
+                case '4', '@' -> 'a';
+                case '5', '$' -> 's';
+                case '7' -> 't';
+                default -> c;
+            };
+        }
+        return new String(chars);
+    }
+
+    private static boolean isSingleLetter(String word) {
+        return word.length() == 1 && word.charAt(0) >= 'a' && word.charAt(0) <= 'z';
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        return 0;
+    }
+
+    private static int[] newState() {
+        int[] state = new int[ALPHABET];
+        Arrays.fill(state, -1);
+        return state;
+    }
+}
@@ -0,0 +1,61 @@
+package org.ai.chatbot_backend.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.ai.chatbot_backend.dto.GeneratedImage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streaming parser for the MAI image generation response. The {@code b64_json} value is base64-decoded
+ * while it is read from the response body, so the multi-MB base64 text never exists as a String.
+ */
+public final class MaiResponseParser {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int INITIAL_IMAGE_BUFFER = 256 * 1024;
+
+    private MaiResponseParser() {
+    }
+
+    /**
+     * Returns the first image of {@code data}, or null when the response has none.
+     */
+    public static GeneratedImage parse(InputStream body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                    return parser.nextToken() == JsonToken.START_OBJECT ? parseImage(parser) : null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+
+    private static GeneratedImage parseImage(JsonParser parser) throws IOException {
+        String url = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("b64_json".equals(field) && value == JsonToken.VALUE_STRING) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_IMAGE_BUFFER);
+                parser.readBinaryValue(bytes);
+                return new GeneratedImage(bytes.toByteArray(), null);
+            }
+            if ("url".equals(field) && value == JsonToken.VALUE_STRING) {
+                url = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return url == null ? null : new GeneratedImage(null, url);
+    }
+}
@@ -0,0 +1,43 @@
+package org.ai.chatbot_backend.util;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Reduces user input to a canonical form so that prompts differing only in case, spacing or
+ * trailing punctuation share a cache key.
+ */
+public final class PromptNormalizer {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\p{Punct}\\s]+$");
+
+    private PromptNormalizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        normalized = WHITESPACE.matcher(normalized.trim()).replaceAll(" ");
+        return TRAILING_PUNCTUATION.matcher(normalized).replaceAll("");
+    }
+
+    /**
+     * Normalizes a comma separated list, ignoring order and duplicates.
+     */
+    public static String normalizeList(String csv) {
+        if (csv == null) {
+            return "";
+        }
+        return Arrays.stream(csv.split(","))
+                .map(PromptNormalizer::normalize)
+                .filter(item -> !item.isEmpty())
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+}
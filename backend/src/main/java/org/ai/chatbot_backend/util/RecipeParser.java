@@ -0,0 +1,288 @@
+package org.ai.chatbot_backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Line by line parser for the recipe markdown the model is asked to produce:
+ * <pre>
+ * ### Title
+ *
+ * #### Ingredients:
+ * - ingredient
+ *
+ * #### Instructions:
+ * 1. step
+ * </pre>
+ * One linear pass classifies the text and collects the title, ingredients and steps; lines are scanned in
+ * place and only the extracted values are copied. Text can be given whole to {@link #parse} or in chunks
+ * to {@link #accept} as it streams from the model, with a {@link Listener} told about each value as soon
+ * as its line is complete.
+ */
+public final class RecipeParser {
+
+    public enum Format {
+        /** Not a recipe, or a refusal. */
+        NONE,
+        /** Starts with a title and has ingredients and instructions sections, labelled in any style. */
+        LOOSE,
+        /** Starts with a ### title and has "#### Ingredients:" and "#### Instructions:" headings. */
+        STRICT
+    }
+
+    public record ParsedRecipe(String title, List<String> ingredients, List<String> steps, Format format) {
+    }
+
+    public interface Listener {
+        default void onTitle(String title) {
+        }
+
+        default void onIngredient(String ingredient) {
+        }
+
+        default void onStep(String step) {
+        }
+    }
+
+    private enum Section { NONE, INGREDIENTS, INSTRUCTIONS }
+
+    private static final Listener NO_LISTENER = new Listener() {
+    };
+
+    // any of these as whole words outside the ingredients and instructions means the model declined,
+    // whatever the format looks like; inside them "clarify the butter" is just a step
+    private static final String[] REFUSALS = {
+            "sorry", "i cannot", "i can only answer", "unable to", "illegal", "inappropriate", "clarify"
+    };
+    private static final String INGREDIENTS = "ingredients";
+    private static final String INSTRUCTIONS = "instructions";
+
+    private final Listener listener;
+    private final StringBuilder line = new StringBuilder();
+    private final List<String> ingredients = new ArrayList<>();
+    private final List<String> steps = new ArrayList<>();
+
+    private String title;
+    private Section section = Section.NONE;
+    private boolean seenContent;
+    private boolean startsWithTitle;
+    private boolean ingredientsSection;
+    private boolean instructionsSection;
+    private boolean ingredientsHeading;
+    private boolean instructionsHeading;
+    private boolean refusal;
+
+    public RecipeParser() {
+        this(NO_LISTENER);
+    }
+
+    public RecipeParser(Listener listener) {
+        this.listener = listener;
+    }
+
+    public static ParsedRecipe parse(String text) {
+        if (text == null || text.isBlank()) {
+            return new ParsedRecipe(null, List.of(), List.of(), Format.NONE);
+        }
+        RecipeParser parser = new RecipeParser();
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                parser.line(text, start, i);
+                start = i + 1;
+            }
+        }
+        parser.line(text, start, text.length());
+        return parser.result();
+    }
+
+    /**
+     * Feeds the next chunk of streamed text. Complete lines are parsed right away, the rest waits for the
+     * next chunk or {@link #finish}.
+     */
+    public void accept(CharSequence chunk) {
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            if (c == '\n') {
+                line(line, 0, line.length());
+                line.setLength(0);
+            } else {
+                line.append(c);
+            }
+        }
+    }
+
+    public ParsedRecipe finish() {
+        line(line, 0, line.length());
+        line.setLength(0);
+        return result();
+    }
+
+    /**
+     * True once the text so far starts with a title and has both section labels, with no refusal before
+     * them. Only a refusal after the sections can still turn it into {@link Format#NONE}.
+     */
+    public boolean isRecipeSoFar() {
+        return !refusal && startsWithTitle && ingredientsSection && instructionsSection;
+    }
+
+    private ParsedRecipe result() {
+        Format format = Format.NONE;
+        if (isRecipeSoFar()) {
+            format = ingredientsHeading && instructionsHeading ? Format.STRICT : Format.LOOSE;
+        }
+        return new ParsedRecipe(title, List.copyOf(ingredients), List.copyOf(steps), format);
+    }
+
+    private void line(CharSequence text, int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        // blank lines and the ``` fences some models wrap markdown in
+        if (start == end || (end - start >= 3 && text.charAt(start) == '`' && text.charAt(start + 1) == '`'
+                && text.charAt(start + 2) == '`')) {
+            return;
+        }
+        if (section == Section.NONE) {
+            refusal |= containsRefusal(text, start, end);
+        }
+
+        int hashes = 0;
+        while (start + hashes < end && text.charAt(start + hashes) == '#') {
+            hashes++;
+        }
+        if (!seenContent) {
+            seenContent = true;
+            startsWithTitle = hashes == 3;
+        }
+        if (hashes == 3 && title == null) {
+            String heading = text.subSequence(start + hashes, end).toString().trim();
+            if (!heading.isEmpty()) {
+                title = heading;
+                listener.onTitle(heading);
+            }
+            section = Section.NONE;
+            return;
+        }
+
+        if (label(text, start, end, hashes, INGREDIENTS)) {
+            section = Section.INGREDIENTS;
+            return;
+        }
+        if (label(text, start, end, hashes, INSTRUCTIONS)) {
+            section = Section.INSTRUCTIONS;
+            return;
+        }
+        if (hashes > 0) {
+            section = Section.NONE;
+            return;
+        }
+
+        if (section != Section.NONE) {
+            int item = listItemStart(text, start, end);
+            if (item >= 0) {
+                String value = text.subSequence(item, end).toString();
+                if (section == Section.INGREDIENTS) {
+                    ingredients.add(value);
+                    listener.onIngredient(value);
+                } else {
+                    steps.add(value);
+                    listener.onStep(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * "#### Ingredients:", "**Ingredients**", "Ingredients: ..." and the like. Sets the section flags, the
+     * heading flag only for the exact form the prompts ask for.
+     */
+    private boolean label(CharSequence text, int start, int end, int hashes, String name) {
+        int i = start;
+        while (i < end && isMarkup(text.charAt(i))) {
+            i++;
+        }
+        if (end - i < name.length() || !regionMatches(text, i, name)) {
+            return false;
+        }
+        // only closing markup or a colon may follow, "Ingredients should be cold" is not a label
+        int after = i + name.length();
+        while (after < end && (text.charAt(after) == '*' || text.charAt(after) == '_')) {
+            after++;
+        }
+        if (after < end && text.charAt(after) != ':') {
+            return false;
+        }
+        boolean heading = hashes >= 4 && after < end;
+        if (INGREDIENTS.equals(name)) {
+            ingredientsSection = true;
+            ingredientsHeading |= heading;
+        } else {
+            instructionsSection = true;
+            instructionsHeading |= heading;
+        }
+        return true;
+    }
+
+    /**
+     * Index where the item text starts for "- x", "* x", "+ x", "• x", "1. x" and "1) x", or -1.
+     */
+    private static int listItemStart(CharSequence text, int start, int end) {
+        int i = start;
+        char first = text.charAt(i);
+        if (first == '-' || first == '*' || first == '+' || first == '•') {
+            i++;
+        } else if (Character.isDigit(first)) {
+            while (i < end && Character.isDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i == end || (text.charAt(i) != '.' && text.charAt(i) != ')')) {
+                return -1;
+            }
+            i++;
+        } else {
+            return -1;
+        }
+        if (i == end || !Character.isWhitespace(text.charAt(i))) {
+            return -1;
+        }
+        while (i < end && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i < end ? i : -1;
+    }
+
+    private static boolean containsRefusal(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (i > start && Character.isLetter(text.charAt(i - 1))) {
+                continue;
+            }
+            char c = Character.toLowerCase(text.charAt(i));
+            for (String phrase : REFUSALS) {
+                int after = i + phrase.length();
+                if (phrase.charAt(0) == c && after <= end && regionMatches(text, i, phrase)
+                        && (after == end || !Character.isLetter(text.charAt(after)))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // case-insensitive, the phrase is lower case
+    private static boolean regionMatches(CharSequence text, int offset, String phrase) {
+        for (int j = 0; j < phrase.length(); j++) {
+            if (Character.toLowerCase(text.charAt(offset + j)) != phrase.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isMarkup(char c) {
+        return c == '#' || c == '*' || c == '_' || Character.isWhitespace(c);
+    }
+}
@@ -0,0 +1,24 @@
+package org.ai.chatbot_backend.util;
+
+/**
+ * Cheap local token count estimate, roughly four characters per token for English text.
+ * Good enough to keep prompts inside a budget without calling a tokenizer.
+ */
+public final class TokenEstimator {
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int MESSAGE_OVERHEAD_TOKENS = 4;
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    public static int estimateMessage(String content) {
+        return estimate(content) + MESSAGE_OVERHEAD_TOKENS;
+    }
+}
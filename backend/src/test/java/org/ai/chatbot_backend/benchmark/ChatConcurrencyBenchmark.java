@@ -0,0 +1,101 @@
+package org.ai.chatbot_backend.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * How many guest chats one node holds in flight at once, per execution mode, with a model stub that
+ * blocks for a second like a slow provider call. Tomcat is capped at 16 threads, so the platform mode
+ * peaks at the pool size while the virtual mode is bounded only by the bulkhead. Not part of the regular
+ * test run: {@code mvn test -Dtest='ChatConcurrencyBenchmark*'}.
+ */
+abstract class ChatConcurrencyBenchmark {
+    private static final int CHATS = 400;
+    private static final long MODEL_LATENCY_MS = 1_000;
+
+    @SpringBootTest(
+            webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {
+                    "spring.threads.virtual.enabled=true",
+                    "server.tomcat.threads.max=16",
+                    "app.bulkhead.chat.max-concurrent=" + CHATS,
+                    "app.cache.guest-chat.enabled=false"
+            })
+    static class VirtualThreads extends ChatConcurrencyBenchmark {
+    }
+
+    @SpringBootTest(
+            webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {
+                    "spring.threads.virtual.enabled=false",
+                    "server.tomcat.threads.max=16",
+                    "app.bulkhead.chat.max-concurrent=" + CHATS,
+                    "app.cache.guest-chat.enabled=false"
+            })
+    static class PlatformThreads extends ChatConcurrencyBenchmark {
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoBean
+    private ChatModel chatModel;
+
+    @Test
+    void measurePeakInFlightChats() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(chatModel.call(anyString())).thenAnswer(inv -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(MODEL_LATENCY_MS);
+                return "Boil the egg for 9 minutes.";
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/chat/guest"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"message\":\"How long do I boil an egg?\"}"))
+                .build();
+
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build()) {
+
+            long start = System.nanoTime();
+            List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, CHATS)
+                    .mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                    .toList();
+            CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+            double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+
+            long ok = responses.stream().filter(response -> response.join().statusCode() == 200).count();
+            System.out.printf("%-16s peak %d in-flight chats, %d/%d ok in %.0f ms, %.1f chats/s%n",
+                    getClass().getSimpleName(),
+                    peak.get(),
+                    ok,
+                    CHATS,
+                    elapsedMs,
+                    CHATS / (elapsedMs / 1_000));
+        }
+    }
+}
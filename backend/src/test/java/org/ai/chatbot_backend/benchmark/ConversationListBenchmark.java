@@ -0,0 +1,139 @@
+package org.ai.chatbot_backend.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.ai.chatbot_backend.enums.ConversationRole;
+import org.ai.chatbot_backend.enums.UserRole;
+import org.ai.chatbot_backend.model.Conversation;
+import org.ai.chatbot_backend.model.Message;
+import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.repository.ConversationRepository;
+import org.ai.chatbot_backend.repository.MessageRepository;
+import org.ai.chatbot_backend.repository.UserRepository;
+import org.ai.chatbot_backend.service.implementations.ChatService;
+import org.ai.chatbot_backend.service.implementations.ConversationService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compares the old entity based conversation list (page of Conversation plus lazy messages) with the
+ * projection query, on one user with thousands of conversations. Not part of the regular test run:
+ * {@code mvn test -Dtest=ConversationListBenchmark}. Point spring.datasource.* at MySQL to run it there.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConversationListBenchmark {
+    private static final int CONVERSATIONS = 3_000;
+    private static final int MESSAGES_PER_CONVERSATION = 6;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 100;
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ChatModel chatModel;
+
+    private User user;
+
+    @BeforeAll
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User u = new User();
+        u.setName("bench-" + suffix);
+        u.setEmail("bench-" + suffix + "@example.com");
+        u.setPassword("password");
+        u.setRole(UserRole.USER);
+        user = userRepository.save(u);
+
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        for (int batch = 0; batch < CONVERSATIONS; batch += 500) {
+            int from = batch;
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Message> messages = new ArrayList<>();
+                for (int i = from; i < Math.min(from + 500, CONVERSATIONS); i++) {
+                    LocalDateTime at = start.plusMinutes(i);
+                    Conversation conversation = conversationRepository.save(Conversation.builder()
+                            .user(user)
+                            .title("Conversation " + i)
+                            .createdAt(at)
+                            .updatedAt(at)
+                            .build());
+                    for (int m = 0; m < MESSAGES_PER_CONVERSATION; m++) {
+                        messages.add(Message.builder()
+                                .conversation(conversation)
+                                .role(m % 2 == 0 ? ConversationRole.USER : ConversationRole.ASSISTANT)
+                                .content("Message " + m + " " + "lorem ipsum ".repeat(80))
+                                .timestamp(at.plusSeconds(m))
+                                .build());
+                    }
+                }
+                messageRepository.saveAll(messages);
+            });
+        }
+    }
+
+    @Test
+    void compareEntityListWithProjection() {
+        report("entity + lazy messages", () -> transactionTemplate.execute(status -> {
+            Page<Conversation> page = conversationService.findByUser(user, 1, PAGE_SIZE);
+            page.forEach(c -> c.getMessages().size());
+            return page.getNumberOfElements();
+        }));
+        report("projection", () -> chatService.loadConversations(user, 1, PAGE_SIZE).getItems().size());
+    }
+
+    private void report(String name, Supplier<Integer> run) {
+        for (int i = 0; i < WARMUP; i++) {
+            run.get();
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            run.get();
+        }
+        double avgMs = (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+
+        System.out.printf("%-24s avg %.2f ms/page, %d statements/page, %d entities/page%n",
+                name,
+                avgMs,
+                statistics.getPrepareStatementCount() / ITERATIONS,
+                statistics.getEntityLoadCount() / ITERATIONS);
+    }
+}
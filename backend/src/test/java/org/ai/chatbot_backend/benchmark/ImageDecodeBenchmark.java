@@ -0,0 +1,66 @@
+package org.ai.chatbot_backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.ai.chatbot_backend.util.MaiResponseParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+/**
+ * Heap allocated per MAI response on the way from the HTTP body to image bytes: the old path (Map, data
+ * uri String, substring, decode) against the streaming parser. Not part of the regular test run:
+ * {@code mvn test -Dtest=ImageDecodeBenchmark}.
+ */
+class ImageDecodeBenchmark {
+    private static final int IMAGE_BYTES = 1536 * 1024;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compareAllocations() throws Exception {
+        byte[] image = new byte[IMAGE_BYTES];
+        new Random(42).nextBytes(image);
+        byte[] body = ("{\"created\":1,\"data\":[{\"b64_json\":\"" + Base64.getEncoder().encodeToString(image) + "\"}]}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        System.out.printf("image %d KB, response body %d KB%n", IMAGE_BYTES / 1024, body.length / 1024);
+        measure("map + data uri", () -> decodeViaMap(body));
+        measure("streaming", () -> MaiResponseParser.parse(new ByteArrayInputStream(body)).bytes());
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] decodeViaMap(byte[] body) throws Exception {
+        Map<String, Object> response = objectMapper.readValue(new ByteArrayInputStream(body), Map.class);
+        Map<String, String> result = ((List<Map<String, String>>) response.get("data")).getFirst();
+        String dataUri = "data:image/png;base64," + result.get("b64_json");
+        return Base64.getDecoder().decode(dataUri.substring(dataUri.indexOf(',') + 1));
+    }
+
+    private void measure(String name, Callable<byte[]> decode) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        for (int i = 0; i < WARMUP; i++) {
+            decode.call();
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            if (decode.call().length != IMAGE_BYTES) {
+                throw new IllegalStateException(name + " decoded the wrong number of bytes");
+            }
+        }
+        double avgMs = (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+        double mbPerRequest = (threads.getThreadAllocatedBytes(thread) - allocated) / (1024.0 * 1024.0) / ITERATIONS;
+        System.out.printf("%-16s %.1f MB allocated/request (%.1fx image), avg %.2f ms%n",
+                name, mbPerRequest, mbPerRequest * 1024 * 1024 / IMAGE_BYTES, avgMs);
+    }
+}
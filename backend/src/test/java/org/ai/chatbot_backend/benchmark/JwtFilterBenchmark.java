@@ -0,0 +1,103 @@
+package org.ai.chatbot_backend.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.ai.chatbot_backend.config.CacheNames;
+import org.ai.chatbot_backend.config.JwtService;
+import org.ai.chatbot_backend.enums.UserRole;
+import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Per-request cost of JWT authentication on an authenticated read, with the principal cache cold on every
+ * request (the old lookup-per-request path) and warm. Not part of the regular test run:
+ * {@code mvn test -Dtest=JwtFilterBenchmark}.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class JwtFilterBenchmark {
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 5_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ChatModel chatModel;
+
+    private String token;
+
+    @BeforeAll
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User u = new User();
+        u.setName("bench-" + suffix);
+        u.setEmail("bench-" + suffix + "@example.com");
+        u.setPassword("password");
+        u.setRole(UserRole.USER);
+        token = jwtService.generateToken(userRepository.save(u));
+    }
+
+    @Test
+    void compareColdAndWarmPrincipalCache() throws Exception {
+        report("cache cold", true);
+        report("cache warm", false);
+    }
+
+    private void report(String name, boolean evictEachRequest) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            request(evictEachRequest);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            request(evictEachRequest);
+        }
+        double avgUs = (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+
+        System.out.printf("%-12s avg %.1f us/request, %.2f statements/request%n",
+                name,
+                avgUs,
+                (double) statistics.getPrepareStatementCount() / ITERATIONS);
+    }
+
+    private void request(boolean evict) throws Exception {
+        if (evict) {
+            cacheManager.getCache(CacheNames.PRINCIPALS).clear();
+        }
+        mockMvc.perform(get("/api/v1/users/me/images").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+}
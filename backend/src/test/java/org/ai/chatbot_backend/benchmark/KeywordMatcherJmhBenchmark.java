@@ -0,0 +1,97 @@
+package org.ai.chatbot_backend.benchmark;
+
+import org.ai.chatbot_backend.util.KeywordMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Checking the four fields of a clean image request against non_food_keywords.txt: the compiled matcher
+ * against the old split-then-contains loop. Run with {@code mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=org.ai.chatbot_backend.benchmark.KeywordMatcherJmhBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeywordMatcherJmhBenchmark {
+    private static final String[] FIELDS = {
+            "Slow braised pork belly with star anise and a sticky soy glaze",
+            "main course",
+            "pork belly, soy sauce, star anise, ginger, garlic, spring onion, brown sugar, rice wine",
+            "braise"
+    };
+
+    private Set<String> keywords;
+    private KeywordMatcher matcher;
+
+    @Setup
+    public void setup() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Objects.requireNonNull(getClass().getResourceAsStream("/non_food_keywords.txt")), StandardCharsets.UTF_8))) {
+            keywords = reader.lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isBlank() && !line.startsWith("#"))
+                    .map(line -> line.toLowerCase(Locale.ROOT))
+                    .collect(Collectors.toSet());
+        }
+        matcher = KeywordMatcher.compile(keywords);
+    }
+
+    @Benchmark
+    public boolean compiledMatcher() {
+        for (String field : FIELDS) {
+            if (matcher.findFirst(field) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean splitAndContains() {
+        // ImageService.validateField before the matcher
+        for (String field : FIELDS) {
+            List<String> words = Arrays.stream(field.toLowerCase(Locale.ROOT).split("\\W+"))
+                    .filter(s -> !s.isBlank())
+                    .toList();
+            for (String keyword : keywords) {
+                if (words.contains(keyword)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(KeywordMatcherJmhBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,135 @@
+package org.ai.chatbot_backend.benchmark;
+
+import org.ai.chatbot_backend.dto.CursorPageResult;
+import org.ai.chatbot_backend.dto.MessageDto;
+import org.ai.chatbot_backend.enums.ConversationRole;
+import org.ai.chatbot_backend.enums.UserRole;
+import org.ai.chatbot_backend.model.Conversation;
+import org.ai.chatbot_backend.model.Message;
+import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.repository.ConversationRepository;
+import org.ai.chatbot_backend.repository.MessageRepository;
+import org.ai.chatbot_backend.repository.UserRepository;
+import org.ai.chatbot_backend.service.implementations.MessageService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compares OFFSET pagination with keyset (cursor) pagination on one long conversation, at pages 1, 100
+ * and 1000. Not part of the regular test run: {@code mvn test -Dtest=PaginationBenchmark}. Point
+ * spring.datasource.* at MySQL to run it there.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PaginationBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final int[] PAGES = {1, 100, 1000};
+    private static final int MESSAGES = PAGE_SIZE * 1000 + PAGE_SIZE;
+    private static final int WARMUP = 10;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private ChatModel chatModel;
+
+    private long conversationId;
+
+    @BeforeAll
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User u = new User();
+        u.setName("bench-" + suffix);
+        u.setEmail("bench-" + suffix + "@example.com");
+        u.setPassword("password");
+        u.setRole(UserRole.USER);
+        User user = userRepository.save(u);
+
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        Conversation conversation = conversationRepository.save(Conversation.builder()
+                .user(user)
+                .title("Long conversation")
+                .createdAt(start)
+                .updatedAt(start)
+                .build());
+        conversationId = conversation.getId();
+
+        for (int batch = 0; batch < MESSAGES; batch += 1_000) {
+            int from = batch;
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Message> messages = new ArrayList<>();
+                for (int i = from; i < Math.min(from + 1_000, MESSAGES); i++) {
+                    messages.add(Message.builder()
+                            .conversation(conversation)
+                            .role(i % 2 == 0 ? ConversationRole.USER : ConversationRole.ASSISTANT)
+                            .content("Message " + i + " " + "lorem ipsum ".repeat(20))
+                            .timestamp(start.plusSeconds(i))
+                            .build());
+                }
+                messageRepository.saveAll(messages);
+            });
+        }
+    }
+
+    @Test
+    void compareOffsetWithKeyset() {
+        for (int page : PAGES) {
+            String cursor = cursorBefore(page);
+            report("offset  page " + page,
+                    () -> messageService.getMessagesForConversationPaged(conversationId, page, PAGE_SIZE).getItems().size());
+            report("keyset  page " + page,
+                    () -> messageService.getMessagesForConversationAfter(conversationId, cursor, PAGE_SIZE, false).getItems().size());
+        }
+    }
+
+    // Walks the cursor chain once so the keyset run starts from the same row the offset run skips to.
+    private String cursorBefore(int page) {
+        String cursor = "";
+        for (int i = 1; i < page; i++) {
+            CursorPageResult<MessageDto> result =
+                    messageService.getMessagesForConversationAfter(conversationId, cursor, PAGE_SIZE, false);
+            cursor = result.getNextCursor();
+        }
+        return cursor;
+    }
+
+    private void report(String name, Supplier<Integer> run) {
+        for (int i = 0; i < WARMUP; i++) {
+            run.get();
+        }
+
+        long start = System.nanoTime();
+        int rows = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            rows = run.get();
+        }
+        double avgMs = (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+
+        System.out.printf("%-18s avg %.2f ms/page, %d rows%n", name, avgMs, rows);
+    }
+}
@@ -0,0 +1,159 @@
+package org.ai.chatbot_backend.benchmark;
+
+import org.ai.chatbot_backend.util.RecipeParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Classifying a model reply and taking its title: the single-pass RecipeParser against the old
+ * ChatService.looksLikeRecipe, RecipeService.isValidRecipeFormat and RecipeHistoryService.extractRecipeTitle
+ * (lower-casing, contains checks and DOTALL regexes). Add {@code -prof gc} to the runner options for the
+ * allocation rate. Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.ai.chatbot_backend.benchmark.RecipeParserJmhBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeParserJmhBenchmark {
+    private static final Pattern RECIPE_PATTERN = Pattern.compile(
+            "(?s)^###\\s+.+?\\R+####\\s+Ingredients:.*?####\\s+Instructions:",
+            Pattern.CASE_INSENSITIVE
+    );
+    private static final Pattern TITLE_PATTERN = Pattern.compile("^###\\s*(.+)$", Pattern.MULTILINE);
+
+    @Param({"recipe", "answer", "refusal"})
+    public String kind;
+
+    private String text;
+
+    @Setup
+    public void setup() {
+        text = switch (kind) {
+            case "recipe" -> recipe();
+            case "answer" -> answer();
+            default -> "Sorry, I can only talk about food.";
+        };
+    }
+
+    @Benchmark
+    public boolean parserChat() {
+        return RecipeParser.parse(text).format() == RecipeParser.Format.STRICT;
+    }
+
+    @Benchmark
+    public boolean legacyChat() {
+        return looksLikeRecipe(text);
+    }
+
+    @Benchmark
+    public String parserRecipeService() {
+        RecipeParser.ParsedRecipe recipe = RecipeParser.parse(text);
+        return recipe.format() != RecipeParser.Format.NONE ? recipe.title() : null;
+    }
+
+    @Benchmark
+    public String legacyRecipeService() {
+        return isValidRecipeFormat(text) ? extractRecipeTitle(text) : null;
+    }
+
+    private static boolean looksLikeRecipe(String text) {
+        if (text == null || text.isBlank()) {
+            return false;
+        }
+        String lower = text.toLowerCase();
+        if (lower.contains("sorry") ||
+                lower.contains("i cannot") ||
+                lower.contains("unable to") ||
+                lower.contains("illegal") ||
+                lower.contains("inappropriate") ||
+                lower.startsWith("i can only answer")) {
+            return false;
+        }
+        if (RECIPE_PATTERN.matcher(text).find()) {
+            return true;
+        }
+        boolean hasTitle = text.trim().startsWith("###");
+        boolean hasIngredientsSection = lower.contains("#### ingredients:");
+        boolean hasInstructionsSection = lower.contains("#### instructions:");
+        return hasTitle && hasIngredientsSection && hasInstructionsSection;
+    }
+
+    private static boolean isValidRecipeFormat(String recipeText) {
+        if (recipeText == null || recipeText.isBlank()) {
+            return false;
+        }
+        if (recipeText.toLowerCase().contains("i cannot") ||
+                recipeText.toLowerCase().contains("i'm sorry") ||
+                recipeText.toLowerCase().contains("unable to") ||
+                recipeText.toLowerCase().contains("clarify") ||
+                recipeText.toLowerCase().contains("illegal") ||
+                recipeText.toLowerCase().contains("inappropriate")) {
+            return false;
+        }
+        if (RECIPE_PATTERN.matcher(recipeText).find()) {
+            return true;
+        }
+        String lower = recipeText.toLowerCase();
+        boolean hasTitle = recipeText.trim().startsWith("###");
+        return hasTitle && lower.contains("ingredients") && lower.contains("instructions");
+    }
+
+    private static String extractRecipeTitle(String markdown) {
+        Matcher matcher = TITLE_PATTERN.matcher(markdown);
+        return matcher.find() ? matcher.group(1).trim() : "Untitled Recipe";
+    }
+
+    private static String recipe() {
+        StringBuilder sb = new StringBuilder("### Slow Braised Pork Belly with Star Anise and Soy Glaze\n\n#### Ingredients:\n");
+        String[] ingredients = {
+                "1 kg pork belly, skin on, cut into 4 cm cubes", "3 tablespoons light soy sauce",
+                "1 tablespoon dark soy sauce", "2 tablespoons Shaoxing rice wine", "40 g rock sugar",
+                "3 whole star anise", "1 cinnamon stick", "4 slices fresh ginger", "4 cloves garlic, smashed",
+                "3 spring onions, cut into 5 cm lengths", "500 ml hot water", "1 teaspoon neutral oil"
+        };
+        for (String ingredient : ingredients) {
+            sb.append("- ").append(ingredient).append('\n');
+        }
+        sb.append("\n#### Instructions:\n");
+        for (int i = 1; i <= 12; i++) {
+            sb.append(i).append(". Blanch, sear and braise the pork for this stage, stirring now and then so the "
+                    + "glaze coats every piece evenly and the liquid reduces without catching on the bottom of the pot.\n");
+        }
+        return sb.toString();
+    }
+
+    private static String answer() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            sb.append("Pizza is a flatbread from Naples topped with tomato, mozzarella and basil. Variations range "
+                    + "from thin Roman crusts to deep-dish Chicago pies, and toppings follow local ingredients.\n\n");
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RecipeParserJmhBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
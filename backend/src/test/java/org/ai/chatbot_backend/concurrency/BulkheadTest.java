@@ -0,0 +1,105 @@
+package org.ai.chatbot_backend.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.ai.chatbot_backend.exception.ProviderBusyException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void call_whenPermitFree_runsAndReleases() {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 0, Duration.ofMillis(10), meterRegistry);
+
+        assertEquals("a", bulkhead.call(() -> "a"));
+        assertEquals("b", bulkhead.call(() -> "b"));
+        assertEquals(0.0, meterRegistry.get("provider.calls.in_flight").gauge().value());
+    }
+
+    @Test
+    void call_whenSupplierThrows_releasesPermit() {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 0, Duration.ofMillis(10), meterRegistry);
+
+        assertThrows(IllegalStateException.class, () -> bulkhead.call(() -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("ok", bulkhead.call(() -> "ok"));
+    }
+
+    @Test
+    void call_whenQueueFull_rejectsImmediately() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 0, Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<String> holder = executor.submit(() -> bulkhead.call(() -> {
+                started.countDown();
+                await(release);
+                return "held";
+            }));
+            assertTrue(started.await(1, TimeUnit.SECONDS));
+
+            long start = System.nanoTime();
+            assertThrows(ProviderBusyException.class, () -> bulkhead.call(() -> "rejected"));
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1_000);
+            assertEquals(1.0, meterRegistry.get("provider.calls.rejected").tag("reason", "queue_full").counter().count());
+
+            release.countDown();
+            assertEquals("held", holder.get(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void call_whenWaitExceedsMaxWait_rejectsWithTimeout() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 4, Duration.ofMillis(50), meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            executor.submit(() -> bulkhead.call(() -> {
+                started.countDown();
+                await(release);
+                return "held";
+            }));
+            assertTrue(started.await(1, TimeUnit.SECONDS));
+
+            assertThrows(ProviderBusyException.class, () -> bulkhead.call(() -> "late"));
+            assertEquals(1.0, meterRegistry.get("provider.calls.rejected").tag("reason", "timeout").counter().count());
+            assertEquals(0.0, meterRegistry.get("provider.calls.queued").gauge().value());
+
+            release.countDown();
+        }
+    }
+
+    @Test
+    void stream_holdsPermitUntilStreamTerminates() {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 0, Duration.ofMillis(10), meterRegistry);
+
+        Flux<String> stream = bulkhead.stream(() -> Flux.just("a", "b"));
+        assertEquals(0.0, meterRegistry.get("provider.calls.in_flight").gauge().value());
+
+        assertEquals(2, stream.collectList().block().size());
+        assertEquals(0.0, meterRegistry.get("provider.calls.in_flight").gauge().value());
+        assertEquals("ok", bulkhead.call(() -> "ok"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,17 +1,28 @@
 package org.ai.chatbot_backend.integration;
 
 import com.openai.errors.OpenAIException;
+import org.ai.chatbot_backend.dto.AssistantMessageDto;
+import org.ai.chatbot_backend.dto.AssistantMessageStream;
+import org.ai.chatbot_backend.enums.UserRole;
 import org.ai.chatbot_backend.exception.InappropriateRequestRefusalException;
+import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.repository.ConversationRepository;
+import org.ai.chatbot_backend.repository.UserRepository;
 import org.ai.chatbot_backend.service.implementations.ChatService;
 import org.junit.jupiter.api.Test;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -20,9 +31,25 @@ class ChatServiceIntegrationTests {
     @Autowired
     private ChatService chatService;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
     @MockitoBean
     private ChatModel chatModel;
 
+    private User createUser(String prefix) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName(prefix + "-" + suffix);
+        user.setEmail(prefix + "-" + suffix + "@example.com");
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        return userRepository.save(user);
+    }
+
     @Test
     void whenGivenValidPrompt_thenReturnResponse() {
         String prompt = "What's a dragon fruit?";
@@ -73,4 +100,45 @@ class ChatServiceIntegrationTests {
         assertThat(response).isInstanceOf(String.class);
         assertThat(response).isNotBlank();
     }
+
+    @Test
+    void whenStreamingValidPrompt_thenEmitTokensInOrder() {
+        String prompt = "What's a dragon fruit?";
+        when(chatModel.stream(anyString())).thenReturn(Flux.just("Dragon fruit ", "", "is a tropical fruit."));
+
+        List<String> tokens = chatService.streamResponse(prompt).collectList().block();
+
+        assertThat(tokens).containsExactly("Dragon fruit ", "is a tropical fruit.");
+    }
+
+    @Test
+    void whenStreamingInvalidPrompt_thenReturnStandardRefusalError() {
+        String prompt = "jakdjlflsf";
+        when(chatModel.stream(anyString())).thenReturn(Flux.error(new OpenAIException("Refused")));
+
+        assertThatThrownBy(() -> chatService.streamResponse(prompt).blockLast())
+            .isInstanceOf(InappropriateRequestRefusalException.class);
+    }
+
+    @Test
+    void whenStreamingNewConversationFails_thenConversationIsDeleted() {
+        User user = createUser("stream-fail");
+        when(chatModel.stream(anyString())).thenReturn(Flux.error(new OpenAIException("Refused")));
+
+        AssistantMessageStream stream = chatService.streamNewConversation(user, "How do I make risotto?");
+
+        assertThatThrownBy(() -> stream.tokens().blockLast())
+            .isInstanceOf(InappropriateRequestRefusalException.class);
+        assertThat(conversationRepository.existsById(stream.conversationId())).isFalse();
+    }
+
+    @Test
+    void whenNewConversationIsRefusedLocally_thenNeitherReplyNorTitleCallsTheModel() {
+        User user = createUser("off-topic");
+
+        AssistantMessageDto reply = chatService.createAndSaveConversation(user, "Who will win the next election?");
+
+        assertThat(reply.getAssistantMessage()).isEqualTo("Sorry, I can only talk about food.");
+        verifyNoInteractions(chatModel);
+    }
 }
@@ -0,0 +1,66 @@
+package org.ai.chatbot_backend.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.threads.virtual.enabled=true",
+                "server.tomcat.threads.max=16",
+                "app.bulkhead.chat.max-concurrent=400",
+                "app.cache.guest-chat.enabled=false"
+        })
+class ChatServiceLoadIntegrationTests {
+
+    private static final int IN_FLIGHT_CHATS = 400;
+    private static final long MODEL_LATENCY_MS = 1_000;
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoBean
+    private ChatModel chatModel;
+
+    @Test
+    void whenManyChatsAreInFlight_thenAllOfThemComplete() {
+        when(chatModel.call(anyString())).thenAnswer(inv -> {
+            Thread.sleep(MODEL_LATENCY_MS);
+            return "Boil the egg for 9 minutes.";
+        });
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/chat/guest"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"message\":\"How long do I boil an egg?\"}"))
+                .build();
+
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build()) {
+
+            List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, IN_FLIGHT_CHATS)
+                    .mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                    .toList();
+            CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+
+            assertThat(responses).allSatisfy(response -> assertThat(response.join().statusCode()).isEqualTo(200));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.ai.chatbot_backend.integration;
+
+import org.ai.chatbot_backend.dto.AssistantMessageDto;
+import org.ai.chatbot_backend.enums.UserRole;
+import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.repository.MessageRepository;
+import org.ai.chatbot_backend.repository.UserRepository;
+import org.ai.chatbot_backend.service.implementations.ChatService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "app.chat.history.token-budget=500")
+class ConversationContextIntegrationTests {
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoSpyBean
+    private MessageRepository messageRepository;
+
+    @MockitoBean
+    private ChatModel chatModel;
+
+    private User createUser(String prefix) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName(prefix + "-" + suffix);
+        user.setEmail(prefix + "-" + suffix + "@example.com");
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        return userRepository.save(user);
+    }
+
+    // title generation also calls the model in the background, only look at chat prompts
+    private String lastChatPrompt() {
+        ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+        verify(chatModel, atLeastOnce()).call(prompt.capture());
+        List<String> prompts = prompt.getAllValues().stream()
+                .filter(p -> p.startsWith(chatService.systemPrompt()))
+                .toList();
+        return prompts.get(prompts.size() - 1);
+    }
+
+    @Test
+    void whenChatting_thenPromptCarriesEarlierTurns() {
+        when(chatModel.call(anyString())).thenReturn("Boil the egg for 9 minutes.");
+        User user = createUser("context");
+
+        AssistantMessageDto first = chatService.createAndSaveConversation(user, "How long do I boil an egg?");
+        long conversationId = first.getConversationId();
+
+        when(chatModel.call(anyString())).thenReturn("Use a large pot.");
+        chatService.chat(user, "What about ten eggs?", conversationId);
+        assertThat(lastChatPrompt())
+                .contains("User: How long do I boil an egg?")
+                .contains("Assistant: Boil the egg for 9 minutes.")
+                .endsWith("User: What about ten eggs?");
+
+        chatService.chat(user, "And quail eggs?", conversationId);
+        assertThat(lastChatPrompt())
+                .contains("User: What about ten eggs?")
+                .contains("Assistant: Use a large pot.");
+
+        // the window is read from the DB once, later turns are appended in memory
+        verify(messageRepository, times(1))
+                .findByConversationIdAndIdGreaterThanOrderByIdDesc(eq(conversationId), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void whenFollowUpHasAnOffTopicWord_thenItStillGoesToTheModelWithTheHistory() {
+        when(chatModel.call(anyString())).thenReturn("Boil the egg for 9 minutes.");
+        User user = createUser("follow-up");
+        long conversationId = chatService.createAndSaveConversation(user, "How long do I boil an egg?").getConversationId();
+
+        when(chatModel.call(anyString())).thenReturn("Eggs have been boiled for centuries...");
+        AssistantMessageDto reply = chatService.chat(user, "Can you write it as an essay?", conversationId);
+
+        assertThat(reply.getAssistantMessage()).isEqualTo("Eggs have been boiled for centuries...");
+        assertThat(lastChatPrompt()).endsWith("User: Can you write it as an essay?");
+    }
+
+    @Test
+    void whenHistoryExceedsBudget_thenOldestMessagesAreDropped() {
+        String longReply = "simmer ".repeat(400);
+        when(chatModel.call(anyString())).thenReturn("Start with the sauce.");
+        User user = createUser("budget");
+
+        long conversationId = chatService.createAndSaveConversation(user, "How do I make lasagna?").getConversationId();
+
+        when(chatModel.call(anyString())).thenReturn(longReply);
+        chatService.chat(user, "Tell me everything about the sauce.", conversationId);
+
+        when(chatModel.call(anyString())).thenReturn("About 45 minutes.");
+        chatService.chat(user, "How long in the oven?", conversationId);
+
+        assertThat(lastChatPrompt())
+                .doesNotContain(longReply)
+                .doesNotContain("How do I make lasagna?")
+                .endsWith("User: How long in the oven?");
+        verify(messageRepository, atMost(1))
+                .findByConversationIdAndIdGreaterThanOrderByIdDesc(anyLong(), anyLong(), any(Pageable.class));
+    }
+}
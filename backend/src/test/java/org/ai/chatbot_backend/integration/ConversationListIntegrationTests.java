@@ -0,0 +1,80 @@
+package org.ai.chatbot_backend.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.ai.chatbot_backend.dto.ConversationDto;
+import org.ai.chatbot_backend.dto.PageResult;
+import org.ai.chatbot_backend.enums.UserRole;
+import org.ai.chatbot_backend.model.Conversation;
+import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.repository.UserRepository;
+import org.ai.chatbot_backend.service.implementations.ChatService;
+import org.ai.chatbot_backend.service.implementations.ConversationService;
+import org.ai.chatbot_backend.service.implementations.MessageService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ConversationListIntegrationTests {
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ChatModel chatModel;
+
+    private User createUser(String prefix) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName(prefix + "-" + suffix);
+        user.setEmail(prefix + "-" + suffix + "@example.com");
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        return userRepository.save(user);
+    }
+
+    @Test
+    void whenListingConversations_thenPreviewIsNewestMessageAndNoMessagesAreLoaded() {
+        User user = createUser("list");
+        for (int i = 1; i <= 5; i++) {
+            Conversation conversation = conversationService.createConversationWithFirstMessage(user, "question " + i);
+            messageService.createAssistantMessage("answer " + i + " " + "x".repeat(300), conversation);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        PageResult<ConversationDto> page = chatService.loadConversations(user, 1, 3);
+
+        assertThat(page.getTotal()).isEqualTo(5);
+        assertThat(page.getItems()).hasSize(3);
+        ConversationDto newest = page.getItems().get(0);
+        assertThat(newest.getMessages()).isNull();
+        assertThat(newest.getUpdatedAt()).isNotNull();
+        assertThat(newest.getLastMessagePreview()).startsWith("answer 5").hasSize(120);
+
+        // one query for the page, one for the count
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,188 @@
+package org.ai.chatbot_backend.integration;
+
+import org.ai.chatbot_backend.enums.UserRole;
+import org.ai.chatbot_backend.model.Conversation;
+import org.ai.chatbot_backend.model.Message;
+import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.repository.ConversationRepository;
+import org.ai.chatbot_backend.repository.UserRepository;
+import org.ai.chatbot_backend.service.implementations.ConversationContextService;
+import org.ai.chatbot_backend.service.implementations.ConversationService;
+import org.ai.chatbot_backend.service.implementations.ConversationSummaryService;
+import org.ai.chatbot_backend.service.implementations.MessageService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+        "app.chat.summary.trigger-messages=6",
+        "app.chat.summary.keep-recent=2",
+        "app.chat.summary.max-fold-messages=6",
+        "app.chat.summary.max-fold-tokens=4000"
+})
+class ConversationSummaryIntegrationTests {
+
+    @Autowired
+    private ConversationSummaryService conversationSummaryService;
+
+    @Autowired
+    private ConversationContextService conversationContextService;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private ChatModel chatModel;
+
+    private User createUser(String prefix) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName(prefix + "-" + suffix);
+        user.setEmail(prefix + "-" + suffix + "@example.com");
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        return userRepository.save(user);
+    }
+
+    private Conversation conversationWithTurns(int turns) {
+        return conversationWithTurns(turns, "");
+    }
+
+    private Conversation conversationWithTurns(int turns, String padding) {
+        Conversation conversation = conversationService.createConversation(createUser("summary"));
+        for (int i = 1; i <= turns; i++) {
+            messageService.createUserMessage("question " + i + padding, conversation);
+            messageService.createAssistantMessage("answer " + i + padding, conversation);
+        }
+        return conversation;
+    }
+
+    @Test
+    void whenBelowThreshold_thenNoSummaryIsStored() {
+        Conversation conversation = conversationWithTurns(3);
+
+        assertThat(conversationSummaryService.summarizeIfNeeded(conversation.getId())).isFalse();
+        verify(chatModel, never()).call(anyString());
+    }
+
+    @Test
+    void whenAboveThreshold_thenOlderMessagesAreFoldedIntoSummary() {
+        when(chatModel.call(anyString())).thenReturn("The user asked questions 1 to 3.");
+        Conversation conversation = conversationWithTurns(4);
+
+        assertThat(conversationSummaryService.summarizeIfNeeded(conversation.getId())).isTrue();
+
+        Conversation stored = conversationRepository.findById(conversation.getId()).orElseThrow();
+        assertThat(stored.getSummary()).isEqualTo("The user asked questions 1 to 3.");
+        assertThat(stored.getSummarizedThroughMessageId()).isNotNull();
+
+        String history = conversationContextService.buildHistory(conversation.getId());
+        assertThat(history)
+                .startsWith("Summary of the earlier conversation: The user asked questions 1 to 3.")
+                .contains("User: question 4")
+                .contains("Assistant: answer 4")
+                .doesNotContain("question 3");
+
+        // nothing new to fold, a second run is a no-op
+        assertThat(conversationSummaryService.summarizeIfNeeded(conversation.getId())).isFalse();
+        verify(chatModel, times(1)).call(anyString());
+    }
+
+    @Test
+    void whenBacklogIsFarLongerThanOneBatch_thenEachRunFoldsOneBatchAndLaterRunsContinue() {
+        when(chatModel.call(anyString())).thenReturn("Summary.");
+        Conversation conversation = conversationWithTurns(50);
+
+        assertThat(conversationSummaryService.summarizeIfNeeded(conversation.getId())).isTrue();
+        ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+        verify(chatModel).call(prompt.capture());
+        assertThat(prompt.getValue())
+                .contains("User: question 3\n")
+                .contains("Assistant: answer 3\n")
+                .doesNotContain("question 4\n");
+        long firstThrough = conversationRepository.findById(conversation.getId()).orElseThrow().getSummarizedThroughMessageId();
+
+        int runs = 1;
+        while (conversationSummaryService.summarizeIfNeeded(conversation.getId())) {
+            runs++;
+        }
+
+        // 100 messages, 6 per fold, until no more than the trigger of 6 are left
+        assertThat(runs).isEqualTo(16);
+        assertThat(conversationRepository.findById(conversation.getId()).orElseThrow().getSummarizedThroughMessageId())
+                .isGreaterThan(firstThrough);
+        assertThat(conversationContextService.buildHistory(conversation.getId()))
+                .contains("User: question 49")
+                .contains("Assistant: answer 50")
+                .doesNotContain("question 48");
+    }
+
+    @Test
+    void whenOlderMessagesAreLong_thenOneFoldStaysWithinTheTokenBudget() {
+        when(chatModel.call(anyString())).thenReturn("Summary.");
+        // about 1250 tokens per message, so three fit into the 4000 token budget
+        Conversation conversation = conversationWithTurns(4, " " + "x".repeat(5_000));
+
+        assertThat(conversationSummaryService.summarizeIfNeeded(conversation.getId())).isTrue();
+        ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+        verify(chatModel).call(prompt.capture());
+        assertThat(prompt.getValue())
+                .contains("User: question 2 ")
+                .doesNotContain("answer 2 ");
+    }
+
+    @Test
+    void whenSummaryWasAdvancedConcurrently_thenStaleSummaryIsDiscarded() {
+        when(chatModel.call(anyString())).thenReturn("First summary.");
+        Conversation conversation = conversationWithTurns(4);
+
+        assertThat(conversationSummaryService.summarizeIfNeeded(conversation.getId())).isTrue();
+        long through = conversationRepository.findById(conversation.getId()).orElseThrow().getSummarizedThroughMessageId();
+
+        // a summarizer that read the conversation before the first one committed
+        assertThat(conversationService.applySummary(conversation.getId(), "Stale summary.", through, 0L)).isFalse();
+        assertThat(conversationRepository.findById(conversation.getId()).orElseThrow().getSummary())
+                .isEqualTo("First summary.");
+    }
+
+    @Test
+    void whenTurnsRunConcurrently_thenAsyncSummariesDoNotOverlap() throws Exception {
+        when(chatModel.call(anyString())).thenAnswer(inv -> {
+            Thread.sleep(200);
+            return "Summary.";
+        });
+        Conversation conversation = conversationWithTurns(4);
+
+        List<Thread> turns = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            turns.add(Thread.ofVirtual().start(() -> conversationSummaryService.summarizeIfNeededAsync(conversation.getId())));
+        }
+        for (Thread turn : turns) {
+            turn.join();
+        }
+
+        verify(chatModel, timeout(2_000).times(1)).call(anyString());
+        Thread.sleep(300);
+        verify(chatModel, times(1)).call(anyString());
+    }
+}
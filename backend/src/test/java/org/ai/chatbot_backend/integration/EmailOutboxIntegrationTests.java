@@ -0,0 +1,186 @@
+package org.ai.chatbot_backend.integration;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.ai.chatbot_backend.email.EmailDetails;
+import org.ai.chatbot_backend.email.IEmailOutboxService;
+import org.ai.chatbot_backend.enums.EmailStatus;
+import org.ai.chatbot_backend.enums.UserRole;
+import org.ai.chatbot_backend.model.OutboundEmail;
+import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.repository.OutboundEmailRepository;
+import org.ai.chatbot_backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=noreply@example.com",
+        "spring.mail.password=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "spring.mail.properties.mail.smtp.starttls.required=false",
+        "app.mail.poll-interval=100ms",
+        "app.mail.retry.initial-backoff=100ms"
+})
+@AutoConfigureMockMvc
+class EmailOutboxIntegrationTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboundEmailRepository outboundEmailRepository;
+
+    @Autowired
+    private IEmailOutboxService emailOutboxService;
+
+    @MockitoSpyBean
+    private JavaMailSender mailSender;
+
+    @MockitoBean
+    private ChatModel chatModel;
+
+    private User createUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName("mail-" + suffix);
+        user.setEmail("mail-" + suffix + "@example.com");
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        return userRepository.save(user);
+    }
+
+    private void requestReset(String email) throws Exception {
+        mockMvc.perform(post("/api/v1/auth/password-reset/request")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"recipient":"%s","subject":"Password Reset Request","msgBody":"Reset your password:"}
+                                """.formatted(email)))
+                .andExpect(status().isAccepted());
+    }
+
+    private OutboundEmail outboxRow(String recipient) {
+        return outboundEmailRepository.findAll().stream()
+                .filter(e -> e.getRecipient().equals(recipient))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private List<OutboundEmail> outboxRows(String recipient) {
+        return outboundEmailRepository.findAll().stream()
+                .filter(e -> e.getRecipient().equals(recipient))
+                .toList();
+    }
+
+    private OutboundEmail awaitStatus(String recipient, EmailStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        OutboundEmail row = outboxRow(recipient);
+        while (row.getStatus() != status && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            row = outboxRow(recipient);
+        }
+        return row;
+    }
+
+    @Test
+    void whenResetRequested_thenMailIsDeliveredThroughTheOutbox() throws Exception {
+        User user = createUser();
+
+        requestReset(user.getEmail());
+
+        assertThat(greenMail.waitForIncomingEmail(5_000, 1)).isTrue();
+        MimeMessage received = greenMail.getReceivedMessages()[0];
+        assertThat(received.getSubject()).isEqualTo("Password Reset Request");
+        assertThat(GreenMailUtil.getBody(received)).contains("/auth/password-reset/verify?token=");
+
+        OutboundEmail row = awaitStatus(user.getEmail(), EmailStatus.SENT);
+        assertThat(row.getStatus()).isEqualTo(EmailStatus.SENT);
+        assertThat(row.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void whenSmtpFailsOnce_thenMailIsRetriedWithBackoff() throws Exception {
+        doThrow(new MailSendException("SMTP unavailable"))
+                .doCallRealMethod()
+                .when(mailSender).send(any(SimpleMailMessage[].class));
+        User user = createUser();
+
+        requestReset(user.getEmail());
+
+        assertThat(greenMail.waitForIncomingEmail(5_000, 1)).isTrue();
+        OutboundEmail row = awaitStatus(user.getEmail(), EmailStatus.SENT);
+        assertThat(row.getStatus()).isEqualTo(EmailStatus.SENT);
+        assertThat(row.getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void whenOneOfTwoIdenticalMailsFails_thenOnlyThatOneIsRetried() throws Exception {
+        doAnswer(invocation -> {
+            SimpleMailMessage[] messages = invocation.getArgument(0);
+            throw new MailSendException(Map.of(messages[0], new MessagingException("Mailbox busy")));
+        })
+                .doCallRealMethod()
+                .when(mailSender).send(any(SimpleMailMessage[].class));
+        String recipient = "twice-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com";
+        EmailDetails details = new EmailDetails();
+        details.setRecipient(recipient);
+        details.setSubject("Same subject");
+        details.setMsgBody("Same body");
+
+        emailOutboxService.enqueue(details);
+        emailOutboxService.enqueue(details);
+
+        assertThat(greenMail.waitForIncomingEmail(5_000, 2)).isTrue();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        List<OutboundEmail> rows = outboxRows(recipient);
+        while (rows.stream().anyMatch(e -> e.getStatus() != EmailStatus.SENT) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            rows = outboxRows(recipient);
+        }
+        assertThat(rows).extracting(OutboundEmail::getStatus).containsOnly(EmailStatus.SENT);
+        assertThat(rows).extracting(OutboundEmail::getAttempts).containsExactlyInAnyOrder(1, 2);
+    }
+
+    @Test
+    void whenUserIsUnknown_thenNothingIsQueued() throws Exception {
+        String email = "nobody-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com";
+
+        requestReset(email);
+
+        assertThat(outboundEmailRepository.findAll()).noneMatch(e -> e.getRecipient().equals(email));
+    }
+}
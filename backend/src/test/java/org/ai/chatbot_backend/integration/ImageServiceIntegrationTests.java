@@ -5,7 +5,11 @@ import org.ai.chatbot_backend.exception.InappropriateRequestRefusalException;
 import org.ai.chatbot_backend.service.implementations.ImageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClient.RequestHeadersSpec.ConvertibleClientHttpResponse;
+import org.springframework.web.client.RestClient.RequestHeadersSpec.ExchangeFunction;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -15,8 +19,9 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
-import java.util.List;
-import java.util.Map;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 @SpringBootTest
 public class ImageServiceIntegrationTests {
@@ -37,23 +42,8 @@ public class ImageServiceIntegrationTests {
             "vegetable stir fry;null;vegetables;null;vivid;1024x1024"
     }, delimiter = ';', nullValues = "null")
     public void whenGivenValidParams_thenReturnImage(String name, String course, String ingredients, String dishType,
-                                                        String style, String size) {
-        Map<String, Object> mockResponse = Map.of(
-                "data", List.of(
-                        Map.of("url", "https://example.com/generated-image.png")
-                )
-        );
-
-        RestClient.RequestBodyUriSpec requestBodyUriSpec = mock(RestClient.RequestBodyUriSpec.class);
-        RestClient.RequestBodySpec requestBodySpec = mock(RestClient.RequestBodySpec.class);
-        RestClient.ResponseSpec responseSpec = mock(RestClient.ResponseSpec.class);
-
-        when(restClient.post()).thenReturn(requestBodyUriSpec);
-        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
-        when(requestBodySpec.header(anyString(), anyString())).thenReturn(requestBodySpec);
-        when(requestBodySpec.body(anyString())).thenReturn(requestBodySpec);
-        when(requestBodySpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.body(Map.class)).thenReturn(mockResponse);
+                                                        String style, String size) throws IOException {
+        stubMaiResponse("{\"data\":[{\"url\":\"https://example.com/generated-image.png\"}]}");
 
         FoodImageRequest request = new FoodImageRequest();
         request.setName(name);
@@ -104,19 +94,8 @@ public class ImageServiceIntegrationTests {
             "dkjhdkhd,dkjhdkhd,dkjhdkhd,dkjhdkhd,vivid,1024x1024"
     }, nullValues = "null")
     public void whenGivenForbiddenParams_thenRefuseToGenerateImage(String name, String course, String ingredients,
-                                                                   String dishType, String style, String size) {
-        Map<String, Object> emptyResponse = Map.of("data", List.of());
-
-        RestClient.RequestBodyUriSpec requestBodyUriSpec = mock(RestClient.RequestBodyUriSpec.class);
-        RestClient.RequestBodySpec requestBodySpec = mock(RestClient.RequestBodySpec.class);
-        RestClient.ResponseSpec responseSpec = mock(RestClient.ResponseSpec.class);
-
-        when(restClient.post()).thenReturn(requestBodyUriSpec);
-        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
-        when(requestBodySpec.header(anyString(), anyString())).thenReturn(requestBodySpec);
-        when(requestBodySpec.body(anyString())).thenReturn(requestBodySpec);
-        when(requestBodySpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.body(Map.class)).thenReturn(emptyResponse);
+                                                                   String dishType, String style, String size) throws IOException {
+        stubMaiResponse("{\"data\":[]}");
 
         FoodImageRequest request = new FoodImageRequest();
         request.setName(name);
@@ -130,5 +109,21 @@ public class ImageServiceIntegrationTests {
             imageService.generateFoodImageFromParams(request)
         ).isInstanceOf(InappropriateRequestRefusalException.class);
     }
-}
 
+    private void stubMaiResponse(String json) throws IOException {
+        RestClient.RequestBodyUriSpec requestBodyUriSpec = mock(RestClient.RequestBodyUriSpec.class);
+        RestClient.RequestBodySpec requestBodySpec = mock(RestClient.RequestBodySpec.class);
+        ConvertibleClientHttpResponse response = mock(ConvertibleClientHttpResponse.class);
+
+        when(restClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.header(anyString(), anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.body(anyString())).thenReturn(requestBodySpec);
+        when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(response.getBody()).thenReturn(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        when(requestBodySpec.exchange(any())).thenAnswer(inv -> {
+            ExchangeFunction<?> exchange = inv.getArgument(0);
+            return exchange.exchange(mock(HttpRequest.class), response);
+        });
+    }
+}
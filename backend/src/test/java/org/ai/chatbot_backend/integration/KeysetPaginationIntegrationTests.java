@@ -0,0 +1,137 @@
+package org.ai.chatbot_backend.integration;
+
+import org.ai.chatbot_backend.dto.ConversationDto;
+import org.ai.chatbot_backend.dto.CursorPageResult;
+import org.ai.chatbot_backend.dto.ImageDto;
+import org.ai.chatbot_backend.dto.MessageDto;
+import org.ai.chatbot_backend.enums.UserRole;
+import org.ai.chatbot_backend.model.Conversation;
+import org.ai.chatbot_backend.model.Image;
+import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.repository.ImageRepository;
+import org.ai.chatbot_backend.repository.UserRepository;
+import org.ai.chatbot_backend.service.implementations.ChatService;
+import org.ai.chatbot_backend.service.implementations.ConversationService;
+import org.ai.chatbot_backend.service.implementations.ImageService;
+import org.ai.chatbot_backend.service.implementations.MessageService;
+import org.ai.chatbot_backend.service.implementations.R2Service;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class KeysetPaginationIntegrationTests {
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private ChatModel chatModel;
+
+    @MockitoBean
+    private R2Service r2Service;
+
+    private User createUser(String prefix) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName(prefix + "-" + suffix);
+        user.setEmail(prefix + "-" + suffix + "@example.com");
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        return userRepository.save(user);
+    }
+
+    private static <T> List<T> walk(Function<String, CursorPageResult<T>> fetch) {
+        List<T> all = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorPageResult<T> page = fetch.apply(cursor);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return all;
+    }
+
+    @Test
+    void messagesWalkVisitsEveryMessageOnceNewestFirst() {
+        User user = createUser("keyset-messages");
+        Conversation conversation = conversationService.createConversationWithFirstMessage(user, "first");
+        for (int i = 0; i < 6; i++) {
+            messageService.createAssistantMessage("reply " + i, conversation);
+        }
+
+        List<Long> offsetIds = chatService.loadConversation(user, conversation.getId(), 1, 100)
+                .getItems().stream().map(MessageDto::getId).toList();
+        List<Long> cursorIds = walk(cursor -> chatService.loadConversationAfter(user, conversation.getId(), cursor, 3, false))
+                .stream().map(MessageDto::getId).toList();
+
+        assertThat(cursorIds).hasSize(7).doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(offsetIds)
+                .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    void conversationsWalkVisitsEveryConversationOnceNewestFirst() {
+        User user = createUser("keyset-conversations");
+        for (int i = 0; i < 5; i++) {
+            conversationService.createConversationWithFirstMessage(user, "question " + i);
+        }
+
+        List<Long> offsetIds = chatService.loadConversations(user, 1, 100)
+                .getItems().stream().map(ConversationDto::getConversationId).toList();
+        List<Long> cursorIds = walk(cursor -> chatService.loadConversationsAfter(user, cursor, 2, false))
+                .stream().map(ConversationDto::getConversationId).toList();
+
+        assertThat(cursorIds).hasSize(5).doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(offsetIds)
+                .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    void imagesWalkReturnsEveryImageOnceNewestFirst() {
+        User user = createUser("keyset-images");
+        LocalDateTime sameInstant = LocalDateTime.now();
+        List<Long> newestFirst = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // identical timestamps: the id breaks the tie
+            Image image = imageRepository.save(Image.builder()
+                    .user(user)
+                    .filename("img-" + i + ".png")
+                    .createdAt(sameInstant)
+                    .build());
+            newestFirst.add(0, image.getId());
+        }
+
+        List<Long> cursorIds = walk(cursor -> imageService.getImagesAfter(user, cursor, 2, false))
+                .stream().map(ImageDto::getId).toList();
+
+        assertThat(cursorIds).containsExactlyElementsOf(newestFirst);
+        assertThat(imageService.getImagesAfter(user, "", 2, true).getTotal()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,139 @@
+package org.ai.chatbot_backend.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.ai.chatbot_backend.config.CacheNames;
+import org.ai.chatbot_backend.config.JwtService;
+import org.ai.chatbot_backend.enums.UserRole;
+import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.repository.UserRepository;
+import org.ai.chatbot_backend.security.PrincipalCache;
+import org.ai.chatbot_backend.service.implementations.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class PrincipalCacheIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ChatModel chatModel;
+
+    @BeforeEach
+    void clearCache() {
+        cacheManager.getCache(CacheNames.PRINCIPALS).clear();
+    }
+
+    private User createUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName("principal-" + suffix);
+        user.setEmail("principal-" + suffix + "@example.com");
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        return userRepository.save(user);
+    }
+
+    private long userLoads() {
+        return statistics().getEntityStatistics(User.class.getName()).getLoadCount();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void whenSameTokenIsReused_thenUserIsLoadedOnce() throws Exception {
+        User user = createUser();
+        String token = jwtService.generateToken(user);
+        statistics().clear();
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/users/me/images").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+
+        assertThat(userLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void whenPrincipalIsCached_thenEachLoadGetsItsOwnUser() {
+        User user = createUser();
+
+        User first = (User) principalCache.load(user.getEmail());
+        first.setName("changed-by-another-request");
+        User second = (User) principalCache.load(user.getEmail());
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getId()).isEqualTo(user.getId());
+        assertThat(second.getName()).isEqualTo(user.getName());
+        assertThat(second.getTokenVersion()).isEqualTo(user.getTokenVersion());
+    }
+
+    @Test
+    void whenPasswordChanges_thenCachedPrincipalIsEvicted() throws Exception {
+        User user = createUser();
+        String token = jwtService.generateToken(user);
+
+        mockMvc.perform(get("/api/v1/users/me/images").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        assertThat(cacheManager.getCache(CacheNames.PRINCIPALS).get(user.getEmail())).isNotNull();
+
+        userService.changeUserPassword(user, "a-new-password");
+
+        assertThat(cacheManager.getCache(CacheNames.PRINCIPALS).get(user.getEmail())).isNull();
+
+        // the reloaded user has a newer token version, so the old token is revoked
+        mockMvc.perform(get("/api/v1/users/me/images").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/v1/users/me/images")
+                        .header("Authorization", "Bearer " + jwtService.generateToken(user)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void whenTokenIsTampered_thenRequestIsUnauthenticated() throws Exception {
+        User user = createUser();
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        mockMvc.perform(get("/api/v1/users/me/images").header("Authorization", "Bearer " + tampered))
+                .andExpect(status().isUnauthorized());
+        assertThat(cacheManager.getCache(CacheNames.PRINCIPALS).get(user.getEmail())).isNull();
+    }
+}
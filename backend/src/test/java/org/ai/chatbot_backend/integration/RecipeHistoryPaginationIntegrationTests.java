@@ -0,0 +1,112 @@
+package org.ai.chatbot_backend.integration;
+
+import org.ai.chatbot_backend.dto.CreateRecipeResult;
+import org.ai.chatbot_backend.dto.CursorPageResult;
+import org.ai.chatbot_backend.dto.PageResult;
+import org.ai.chatbot_backend.dto.RecipeHistoryDto;
+import org.ai.chatbot_backend.enums.UserRole;
+import org.ai.chatbot_backend.exception.InvalidCursorException;
+import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.repository.UserRepository;
+import org.ai.chatbot_backend.service.implementations.RecipeFileService;
+import org.ai.chatbot_backend.service.implementations.RecipeHistoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class RecipeHistoryPaginationIntegrationTests {
+    private static final int ENTRIES = 7;
+
+    @Autowired
+    private RecipeHistoryService recipeHistoryService;
+
+    @Autowired
+    private RecipeFileService recipeFileService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private ChatModel chatModel;
+
+    private User user;
+    private final List<Long> newestFirstIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User u = new User();
+        u.setName("history-" + suffix);
+        u.setEmail("history-" + suffix + "@example.com");
+        u.setPassword("password");
+        u.setRole(UserRole.USER);
+        user = userRepository.save(u);
+
+        newestFirstIds.clear();
+        for (int i = 1; i <= ENTRIES; i++) {
+            String markdown = "### Recipe " + i + "\n\n#### Ingredients:\n- egg\n\n#### Instructions:\n1. Cook.";
+            Long fileId = recipeFileService.storeRecipeText(markdown);
+            long id = recipeHistoryService.saveGeneratedRecipe(user.getId(), new CreateRecipeResult(markdown, fileId, null)).getId();
+            newestFirstIds.add(0, id);
+        }
+    }
+
+    @Test
+    void whenPagingByOffset_thenDatabaseReturnsRequestedSlice() {
+        PageResult<RecipeHistoryDto> page = recipeHistoryService.getHistoryForUserPaged(user.getId(), 2, 3);
+
+        assertThat(page.getTotal()).isEqualTo(ENTRIES);
+        assertThat(page.getItems()).extracting(RecipeHistoryDto::getId)
+                .containsExactlyElementsOf(newestFirstIds.subList(3, 6));
+    }
+
+    @Test
+    void whenPagingPastTheEnd_thenItemsAreEmpty() {
+        PageResult<RecipeHistoryDto> page = recipeHistoryService.getHistoryForUserPaged(user.getId(), 5, 3);
+
+        assertThat(page.getTotal()).isEqualTo(ENTRIES);
+        assertThat(page.getItems()).isEmpty();
+    }
+
+    @Test
+    void whenWalkingWithCursor_thenEveryEntryIsReturnedOnceInOrder() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            CursorPageResult<RecipeHistoryDto> page = recipeHistoryService.getHistoryForUserAfter(user.getId(), cursor, 3, false);
+            assertThat(page.getTotal()).isNull();
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(newestFirstIds);
+    }
+
+    @Test
+    void whenTotalRequested_thenCursorPageCarriesIt() {
+        CursorPageResult<RecipeHistoryDto> page = recipeHistoryService.getHistoryForUserAfter(user.getId(), null, 10, true);
+
+        assertThat(page.getTotal()).isEqualTo(ENTRIES);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void whenCursorIsGarbage_thenInvalidCursor() {
+        assertThatThrownBy(() -> recipeHistoryService.getHistoryForUserAfter(user.getId(), "not a cursor!", 3, false))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+}
@@ -1,28 +1,39 @@
 package org.ai.chatbot_backend.integration;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.ai.chatbot_backend.dto.CreateRecipeResult;
 import org.ai.chatbot_backend.dto.RecipeRequest;
+import org.ai.chatbot_backend.dto.RecipeStreamEvent;
 import org.ai.chatbot_backend.exception.InappropriateRequestRefusalException;
 import org.ai.chatbot_backend.service.implementations.RecipeService;
 import org.ai.chatbot_backend.util.TestJsonUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openaisdk.OpenAiSdkChatModel;
+import org.springframework.ai.openaisdk.OpenAiSdkChatOptions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import reactor.core.publisher.Flux;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -31,6 +42,9 @@ public class RecipeServiceIntegrationTests {
     @Autowired
     private RecipeService recipeService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockitoBean
     private ChatModel chatModel;
 
@@ -43,6 +57,10 @@ public class RecipeServiceIntegrationTests {
     }
 
     private void mockModelJsonResponse(Map<String, Object> payload) {
+        mockModelResponse(TestJsonUtils.toJson(payload));
+    }
+
+    private void mockModelResponse(String text) {
         ChatResponse response = mock(ChatResponse.class);
         Generation generation = mock(Generation.class);
         AssistantMessage message = mock(AssistantMessage.class);
@@ -50,7 +68,11 @@ public class RecipeServiceIntegrationTests {
         when(chatModel.call(any(Prompt.class))).thenReturn(response);
         when(response.getResult()).thenReturn(generation);
         when(generation.getOutput()).thenReturn(message);
-        when(message.getText()).thenReturn(TestJsonUtils.toJson(payload));
+        when(message.getText()).thenReturn(text);
+    }
+
+    private double parseCount(String outcome) {
+        return meterRegistry.counter("recipe.output.parse", "outcome", outcome).count();
     }
 
     @Test
@@ -80,6 +102,26 @@ public class RecipeServiceIntegrationTests {
         assertThat(result.getRecipeMarkdown()).contains("#### Instructions:");
     }
 
+    @Test
+    public void whenRecipeIsRequested_thenSchemaIsSentAsNativeResponseFormat() {
+        mockModelJsonResponse(Map.of(
+                "title", "Herb Omelette",
+                "recipe_markdown", "### Herb Omelette\n\n#### Ingredients:\n- eggs\n\n#### Instructions:\n1. Whisk and fry."
+        ));
+
+        recipeService.createRecipe(recipeRequest("eggs, chives", "French", "null"), null);
+
+        ArgumentCaptor<Prompt> prompt = ArgumentCaptor.forClass(Prompt.class);
+        verify(chatModel).call(prompt.capture());
+        assertThat(prompt.getValue().getOptions()).isInstanceOf(OpenAiSdkChatOptions.class);
+        OpenAiSdkChatModel.ResponseFormat responseFormat =
+                ((OpenAiSdkChatOptions) prompt.getValue().getOptions()).getResponseFormat();
+        assertThat(responseFormat.getType()).isEqualTo(OpenAiSdkChatModel.ResponseFormat.Type.JSON_SCHEMA);
+        assertThat(responseFormat.getJsonSchema()).contains("\"recipe_markdown\"");
+        // the schema is not repeated as free-text format instructions
+        assertThat(prompt.getValue().getContents()).doesNotContain("JSON Schema");
+    }
+
     @Test
     public void whenModelReturnsUnknownField_thenIgnoreItAndParse() {
         String recipeMarkdown = """
@@ -107,6 +149,116 @@ public class RecipeServiceIntegrationTests {
         assertThat(result.getRecipeMarkdown()).contains("Tomato Pasta");
     }
 
+    @Test
+    public void whenModelReturnsNearValidJson_thenRepairLocallyAndCountIt() {
+        double repairedBefore = parseCount("repaired");
+        mockModelResponse("""
+                Here is your recipe:
+                {"title": "Tomato Pasta", "recipe_markdown": "### Tomato Pasta
+
+                #### Ingredients:
+                - pasta {dried}
+                - tomatoes
+
+                #### Instructions:
+                1. Boil pasta.",}
+                Enjoy!
+                """);
+
+        CreateRecipeResult result = recipeService.createRecipe(
+                recipeRequest("penne, cherry tomatoes", "Italian", "null"), null
+        );
+
+        assertThat(result.getRecipeMarkdown()).startsWith("### Tomato Pasta\n\n#### Ingredients:\n- pasta {dried}");
+        assertThat(parseCount("repaired")).isEqualTo(repairedBefore + 1);
+    }
+
+    @Test
+    public void whenModelReturnsNoJson_thenFailAndCountIt() {
+        double failedBefore = parseCount("failed");
+        mockModelResponse("Here is a lovely recipe for you, enjoy!");
+
+        assertThatThrownBy(() -> recipeService.createRecipe(
+                recipeRequest("fusilli, basil", "Italian", "null"), null))
+                .hasMessageContaining("Failed to parse recipe JSON");
+        assertThat(parseCount("failed")).isEqualTo(failedBefore + 1);
+    }
+
+    @Test
+    public void whenModelReplyIsTruncated_thenFailInsteadOfClosingIt() {
+        double failedBefore = parseCount("failed");
+        mockModelResponse("""
+                {"title": "Pesto Fusilli", "recipe_markdown": "### Pesto Fusilli
+
+                #### Ingredients:
+                - fusilli
+                - bas""");
+
+        assertThatThrownBy(() -> recipeService.createRecipe(
+                recipeRequest("fusilli, pesto", "Italian", "null"), null))
+                .hasMessageContaining("Failed to parse recipe JSON");
+        assertThat(parseCount("failed")).isEqualTo(failedBefore + 1);
+    }
+
+    @Test
+    public void whenRecipeIsStreamed_thenEmitSectionsAsLinesCompleteAndStoreAtTheEnd() {
+        when(chatModel.stream(anyString())).thenReturn(Flux.just(
+                "### Garlic Ri", "ce\n\n#### Ingredients:\n- rice\n- gar", "lic\n\n#### Instructions:\n",
+                "1. Fry the garlic.\n2. Add the rice."));
+        List<CreateRecipeResult> completed = new ArrayList<>();
+
+        List<RecipeStreamEvent> events = recipeService.streamRecipe(
+                recipeRequest("jasmine rice, garlic", "Thai", "null"), null, completed::add
+        ).collectList().block();
+
+        assertThat(events).extracting(RecipeStreamEvent::type, RecipeStreamEvent::text).containsExactly(
+                tuple(RecipeStreamEvent.Type.TITLE, "Garlic Rice"),
+                tuple(RecipeStreamEvent.Type.INGREDIENT, "rice"),
+                tuple(RecipeStreamEvent.Type.INGREDIENT, "garlic"),
+                tuple(RecipeStreamEvent.Type.STEP, "Fry the garlic."),
+                tuple(RecipeStreamEvent.Type.STEP, "Add the rice."),
+                tuple(RecipeStreamEvent.Type.DONE, null));
+        assertThat(completed).hasSize(1);
+        assertThat(events.getLast().result()).isSameAs(completed.getFirst());
+        assertThat(completed.getFirst().getRecipeMarkdown()).startsWith("### Garlic Rice").endsWith("2. Add the rice.");
+    }
+
+    @Test
+    public void whenStreamedReplyIsNotARecipe_thenFailWithRefusalAndStoreNothing() {
+        when(chatModel.stream(anyString())).thenReturn(Flux.just("Could you clarify ", "the ingredients?"));
+        List<CreateRecipeResult> completed = new ArrayList<>();
+
+        assertThatThrownBy(() -> recipeService.streamRecipe(
+                recipeRequest("okra, sumac", "null", "null"), null, completed::add).collectList().block())
+                .isInstanceOf(InappropriateRequestRefusalException.class);
+        assertThat(completed).isEmpty();
+    }
+
+    @Test
+    public void whenStreamedReplyRefusesAfterTheTitle_thenNoSectionIsSentBeforeTheError() {
+        assertNothingSentBeforeRefusal("### Garlic Rice\n\n", "I'm sorry, I can only help with cooking.\n", "- rice\n");
+    }
+
+    @Test
+    public void whenStreamedReplyNeverReachesInstructions_thenHeldIngredientsAreDropped() {
+        assertNothingSentBeforeRefusal("### Garlic Rice\n\n#### Ingredients:\n", "- rice\n- garlic\n",
+                "Could you tell me more about the dish?");
+    }
+
+    private void assertNothingSentBeforeRefusal(String... tokens) {
+        when(chatModel.stream(anyString())).thenReturn(Flux.just(tokens));
+        List<RecipeStreamEvent> sent = new ArrayList<>();
+        List<CreateRecipeResult> completed = new ArrayList<>();
+
+        assertThatThrownBy(() -> recipeService.streamRecipe(
+                recipeRequest("basmati rice, garlic", "Indian", "null"), null, completed::add)
+                .doOnNext(sent::add)
+                .blockLast())
+                .isInstanceOf(InappropriateRequestRefusalException.class);
+        assertThat(sent).isEmpty();
+        assertThat(completed).isEmpty();
+    }
+
     @Test
     public void whenModelReturnsClarificationInsteadOfRecipe_thenThrowInappropriateRequestRefusal() {
         mockModelJsonResponse(Map.of(
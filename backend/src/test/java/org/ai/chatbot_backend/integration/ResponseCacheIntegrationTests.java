@@ -0,0 +1,144 @@
+package org.ai.chatbot_backend.integration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.ai.chatbot_backend.config.CacheNames;
+import org.ai.chatbot_backend.dto.CreateRecipeResult;
+import org.ai.chatbot_backend.dto.RecipeRequest;
+import org.ai.chatbot_backend.enums.UserRole;
+import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.repository.UserRepository;
+import org.ai.chatbot_backend.service.implementations.ChatService;
+import org.ai.chatbot_backend.service.implementations.RecipeService;
+import org.ai.chatbot_backend.util.TestJsonUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class ResponseCacheIntegrationTests {
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private ChatModel chatModel;
+
+    @BeforeEach
+    void clearCaches() {
+        cacheManager.getCache(CacheNames.GUEST_CHAT_RESPONSES).clear();
+        cacheManager.getCache(CacheNames.RECIPE_RESPONSES).clear();
+    }
+
+    private User createUser(String prefix) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName(prefix + "-" + suffix);
+        user.setEmail(prefix + "-" + suffix + "@example.com");
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        return userRepository.save(user);
+    }
+
+    private static RecipeRequest recipeRequest(String ingredients, String cuisine, String dietaryRestrictions) {
+        RecipeRequest request = new RecipeRequest();
+        request.setIngredients(ingredients);
+        request.setCuisine(cuisine);
+        request.setDietaryRestrictions(dietaryRestrictions);
+        return request;
+    }
+
+    private void mockRecipeResponse(String recipeMarkdown) {
+        ChatResponse response = mock(ChatResponse.class);
+        Generation generation = mock(Generation.class);
+        AssistantMessage message = mock(AssistantMessage.class);
+
+        when(chatModel.call(any(Prompt.class))).thenReturn(response);
+        when(response.getResult()).thenReturn(generation);
+        when(generation.getOutput()).thenReturn(message);
+        when(message.getText()).thenReturn(TestJsonUtils.toJson(Map.of(
+                "title", "Tomato Pasta",
+                "recipe_markdown", recipeMarkdown
+        )));
+    }
+
+    private Cache<?, ?> nativeCache(String name) {
+        return (Cache<?, ?>) cacheManager.getCache(name).getNativeCache();
+    }
+
+    @Test
+    void whenGuestAsksSameQuestionTwice_thenModelIsCalledOnce() {
+        when(chatModel.call(anyString())).thenReturn("Boil the egg for 9 minutes.");
+
+        String first = chatService.createGuestConversation("How long do I boil an egg?").getAssistantMessage();
+        String second = chatService.createGuestConversation("  how long do I   boil an EGG ").getAssistantMessage();
+
+        assertThat(second).isEqualTo(first);
+        verify(chatModel, times(1)).call(anyString());
+        assertThat(nativeCache(CacheNames.GUEST_CHAT_RESPONSES).stats().hitCount()).isEqualTo(1);
+        assertThat(nativeCache(CacheNames.GUEST_CHAT_RESPONSES).stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void whenGuestQuestionsDiffer_thenEachIsAnsweredByTheModel() {
+        when(chatModel.call(anyString())).thenReturn("Answer.");
+
+        chatService.createGuestConversation("How long do I boil an egg?");
+        chatService.createGuestConversation("How long do I boil a potato?");
+
+        verify(chatModel, times(2)).call(anyString());
+    }
+
+    @Test
+    void whenSameRecipeIsRequestedBySignedInUsers_thenModelIsCalledOnceAndEachGetsOwnFile() {
+        String recipeMarkdown = """
+                ### Tomato Pasta
+
+                #### Ingredients:
+                - pasta
+                - tomatoes
+
+                #### Instructions:
+                1. Boil pasta.
+                2. Add sauce.
+                """;
+        mockRecipeResponse(recipeMarkdown);
+
+        User first = createUser("cache-first");
+        User second = createUser("cache-second");
+
+        CreateRecipeResult firstResult = recipeService.createRecipe(
+                recipeRequest("pasta, tomatoes", "Italian", "null"), first.getId());
+        CreateRecipeResult secondResult = recipeService.createRecipe(
+                recipeRequest("Tomatoes,pasta ", "italian", null), second.getId());
+
+        verify(chatModel, times(1)).call(any(Prompt.class));
+        assertThat(secondResult.getRecipeMarkdown()).isEqualTo(firstResult.getRecipeMarkdown());
+        assertThat(firstResult.getFileId()).isNotNull();
+        assertThat(secondResult.getFileId()).isNotNull().isNotEqualTo(firstResult.getFileId());
+    }
+}
@@ -0,0 +1,117 @@
+package org.ai.chatbot_backend.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.ai.chatbot_backend.config.CacheNames;
+import org.ai.chatbot_backend.config.JwtService;
+import org.ai.chatbot_backend.enums.UserRole;
+import org.ai.chatbot_backend.model.User;
+import org.ai.chatbot_backend.repository.UserRepository;
+import org.ai.chatbot_backend.service.implementations.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.security.jwt.stateless=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class StatelessJwtIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ChatModel chatModel;
+
+    @BeforeEach
+    void clearCaches() {
+        cacheManager.getCache(CacheNames.PRINCIPALS).clear();
+        cacheManager.getCache(CacheNames.TOKEN_VERSIONS).clear();
+    }
+
+    private User createUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName("stateless-" + suffix);
+        user.setEmail("stateless-" + suffix + "@example.com");
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        return userRepository.save(user);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void tokenCarriesUserIdRoleAndVersion() {
+        User user = createUser();
+
+        var claims = jwtService.parseClaims(jwtService.generateToken(Map.of(JwtService.CLAIM_NAME, user.getName()), user));
+
+        assertThat(claims.get(JwtService.CLAIM_USER_ID, Long.class)).isEqualTo(user.getId());
+        assertThat(claims.get(JwtService.CLAIM_ROLE, String.class)).isEqualTo("USER");
+        assertThat(claims.get(JwtService.CLAIM_TOKEN_VERSION, Integer.class)).isZero();
+    }
+
+    @Test
+    void whenStateless_thenAuthenticatedReadsDoNotLoadTheUser() throws Exception {
+        User user = createUser();
+        String token = jwtService.generateToken(user);
+        statistics().clear();
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/users/me/images").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+
+        assertThat(statistics().getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    void whenPasswordChanges_thenOldTokensAreRevoked() throws Exception {
+        User user = createUser();
+        String oldToken = jwtService.generateToken(user);
+        mockMvc.perform(get("/api/v1/users/me/images").header("Authorization", "Bearer " + oldToken))
+                .andExpect(status().isOk());
+
+        userService.changeUserPassword(user, "a-new-password");
+
+        mockMvc.perform(get("/api/v1/users/me/images").header("Authorization", "Bearer " + oldToken))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/v1/users/me/images")
+                        .header("Authorization", "Bearer " + jwtService.generateToken(user)))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,123 @@
+package org.ai.chatbot_backend.service.implementations;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FoodTopicClassifierTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FoodTopicClassifier classifier(boolean enabled, double threshold) {
+        return new FoodTopicClassifier(enabled, threshold,
+                List.of("classpath:off_topic_keywords.txt"),
+                List.of("classpath:non_food_keywords.txt", "classpath:off_topic_keywords.txt"),
+                List.of("classpath:food_keywords.txt"),
+                new DefaultResourceLoader(),
+                meterRegistry);
+    }
+
+    private double refusals(String source) {
+        var counter = meterRegistry.find("chat.prefilter.decisions").tags("source", source, "outcome", "refused").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    void offTopicKeywordWithoutFoodWords_isRefusedAndCounted() {
+        FoodTopicClassifier classifier = classifier(true, 0.6);
+
+        assertTrue(classifier.isOffTopic(FoodTopicClassifier.SOURCE_CHAT, "Who will win the next election?"));
+        assertTrue(classifier.isOffTopic(FoodTopicClassifier.SOURCE_RECIPE, "illegal substances\nany\n"));
+        assertEquals(1, refusals(FoodTopicClassifier.SOURCE_CHAT));
+        assertEquals(1, refusals(FoodTopicClassifier.SOURCE_RECIPE));
+    }
+
+    @Test
+    void foodWordOutweighsAnOffTopicKeyword() {
+        FoodTopicClassifier classifier = classifier(true, 0.6);
+
+        assertFalse(classifier.isOffTopic(FoodTopicClassifier.SOURCE_CHAT, "What snacks go with a movie night?"));
+        assertFalse(classifier.isOffTopic(FoodTopicClassifier.SOURCE_RECIPE, "chicken, meat hammer\nany\n"));
+        assertFalse(classifier.isOffTopic(FoodTopicClassifier.SOURCE_RECIPE, "eggs, pine nuts\nFrench\n"));
+        assertEquals(0, refusals(FoodTopicClassifier.SOURCE_CHAT));
+        assertEquals(0, refusals(FoodTopicClassifier.SOURCE_RECIPE));
+    }
+
+    @Test
+    void toolsAndMaterials_areOnlyOffTopicAsIngredients() {
+        FoodTopicClassifier classifier = classifier(true, 0.6);
+
+        assertFalse(classifier.isOffTopic(FoodTopicClassifier.SOURCE_CHAT, "Can you send it as a file?"));
+        assertFalse(classifier.isOffTopic(FoodTopicClassifier.SOURCE_CHAT, "What heat level?"));
+        assertFalse(classifier.isOffTopic(FoodTopicClassifier.SOURCE_CHAT, "Translate it to German"));
+        assertTrue(classifier.isOffTopic(FoodTopicClassifier.SOURCE_RECIPE, "hammer, screws\nany\n"));
+    }
+
+    @Test
+    void unrecognisedText_isLeftToTheModel() {
+        FoodTopicClassifier classifier = classifier(true, 0.6);
+
+        assertFalse(classifier.isOffTopic(FoodTopicClassifier.SOURCE_CHAT, "jakdjlflsf"));
+        assertFalse(classifier.isOffTopic(FoodTopicClassifier.SOURCE_CHAT, ""));
+        assertTrue(classifier.offTopicScore(FoodTopicClassifier.SOURCE_CHAT, "jakdjlflsf") < 0.5);
+    }
+
+    @Test
+    void pluralsCountOnce() {
+        FoodTopicClassifier classifier = classifier(true, 0.6);
+
+        String recipe = FoodTopicClassifier.SOURCE_RECIPE;
+        assertEquals(classifier.offTopicScore(recipe, "a hammer"), classifier.offTopicScore(recipe, "a hammer and more hammers"));
+        assertTrue(classifier.offTopicScore(recipe, "hammers and screws") > classifier.offTopicScore(recipe, "hammers"));
+    }
+
+    @Test
+    void thresholdAndEnabledFlag_areHonoured() {
+        assertFalse(classifier(true, 0.95).isOffTopic(FoodTopicClassifier.SOURCE_CHAT, "Who will win the next election?"));
+        assertFalse(classifier(false, 0.6).isOffTopic(FoodTopicClassifier.SOURCE_CHAT, "Who will win the next election?"));
+        assertNull(meterRegistry.find("chat.prefilter.decisions").tags("outcome", "refused").counter());
+    }
+
+    /**
+     * Precision matters most: a false refusal turns away a food question, a miss only costs a model call.
+     * Questions about tools and materials are among the misses, the chat lexicon leaves them to the model.
+     */
+    @Test
+    void labeledCorpus_precisionAndRecall() throws IOException {
+        FoodTopicClassifier classifier = classifier(true, 0.6);
+        List<String> lines = new ClassPathResource("prefilter/labeled_prompts.tsv")
+                .getContentAsString(StandardCharsets.UTF_8).lines()
+                .filter(line -> !line.isBlank() && !line.startsWith("#"))
+                .toList();
+
+        int truePositives = 0;
+        List<String> falseRefusals = new ArrayList<>();
+        int falseNegatives = 0;
+        for (String line : lines) {
+            String[] columns = line.split("\t", 2);
+            boolean offTopic = "off_topic".equals(columns[0]);
+            boolean refused = classifier.isOffTopic(FoodTopicClassifier.SOURCE_CHAT, columns[1]);
+            if (refused && offTopic) {
+                truePositives++;
+            } else if (refused) {
+                falseRefusals.add(columns[1]);
+            } else if (offTopic) {
+                falseNegatives++;
+            }
+        }
+
+        double precision = truePositives / (double) (truePositives + falseRefusals.size());
+        double recall = truePositives / (double) (truePositives + falseNegatives);
+
+        assertTrue(precision >= 0.95, "precision " + precision + " on " + lines.size() + " prompts, refused " + falseRefusals);
+        assertTrue(recall >= 0.7, "recall " + recall + " on " + lines.size() + " prompts");
+    }
+}
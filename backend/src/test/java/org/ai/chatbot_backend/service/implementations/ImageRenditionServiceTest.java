@@ -0,0 +1,68 @@
+package org.ai.chatbot_backend.service.implementations;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageRenditionServiceTest {
+
+    @Test
+    void render_fitsEachSizeAsBoundingBox() throws IOException {
+        ImageRenditionService service = new ImageRenditionService(List.of(768, 150, 300), List.of("jpeg"), 0.8f);
+
+        List<ImageRenditionService.Rendition> renditions = join(service.render(png(1365, 768)));
+
+        assertEquals(List.of(150, 300, 768), renditions.stream().map(ImageRenditionService.Rendition::size).toList());
+        for (ImageRenditionService.Rendition rendition : renditions) {
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(rendition.bytes()));
+            assertEquals(rendition.size(), decoded.getWidth());
+            assertEquals(rendition.width(), decoded.getWidth());
+            assertTrue(decoded.getHeight() < decoded.getWidth());
+            assertEquals("image/jpeg", rendition.contentType());
+        }
+    }
+
+    @Test
+    void render_portraitImage_reportsRealWidth() throws IOException {
+        ImageRenditionService service = new ImageRenditionService(List.of(300), List.of("jpeg"), 0.8f);
+
+        ImageRenditionService.Rendition rendition = join(service.render(png(768, 1024))).getFirst();
+
+        assertEquals(300, rendition.size());
+        assertEquals(225, rendition.width());
+    }
+
+    @Test
+    void unavailableFormats_fallBackToJpeg() throws IOException {
+        ImageRenditionService service = new ImageRenditionService(List.of(150), List.of("no-such-format"), 0.8f);
+
+        ImageRenditionService.Rendition rendition = join(service.render(png(300, 300))).getFirst();
+
+        assertEquals("jpg", rendition.extension());
+        assertEquals("image/jpeg", rendition.contentType());
+    }
+
+    @Test
+    void thumbnailSize_prefersClosestTo300() {
+        assertEquals(300, new ImageRenditionService(List.of(150, 300, 768), List.of("jpeg"), 0.8f).thumbnailSize());
+        assertEquals(256, new ImageRenditionService(List.of(128, 256, 1024), List.of("jpeg"), 0.8f).thumbnailSize());
+    }
+
+    private static List<ImageRenditionService.Rendition> join(List<CompletableFuture<ImageRenditionService.Rendition>> futures) {
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -1,27 +1,58 @@
 package org.ai.chatbot_backend.service.implementations;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.ai.chatbot_backend.concurrency.Bulkhead;
 import org.ai.chatbot_backend.dto.FoodImageRequest;
+import org.ai.chatbot_backend.dto.ImageContent;
+import org.ai.chatbot_backend.dto.ImageDto;
+import org.ai.chatbot_backend.dto.ImageRenditionDto;
 import org.ai.chatbot_backend.exception.InappropriateRequestRefusalException;
+import org.ai.chatbot_backend.exception.ProviderBusyException;
+import org.ai.chatbot_backend.exception.RangeNotSatisfiableException;
 import org.ai.chatbot_backend.exception.ResourceNotFoundException;
 import org.ai.chatbot_backend.model.Image;
+import org.ai.chatbot_backend.model.ImageRendition;
 import org.ai.chatbot_backend.model.User;
 import org.ai.chatbot_backend.repository.ImageRepository;
+import org.ai.chatbot_backend.util.KeywordMatcher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClient.RequestHeadersSpec.ConvertibleClientHttpResponse;
+import org.springframework.web.client.RestClient.RequestHeadersSpec.ExchangeFunction;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Map;
+import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,21 +61,36 @@ public class ImageServiceTest {
 
     private ImageRepository imageRepository;
     private S3Client r2Client;
+    private InMemoryS3AsyncClient r2AsyncClient;
+    private UserService userService;
+    private SimpleMeterRegistry meterRegistry;
     private RestClient restClient;
     private ImageService imageService;
 
     @BeforeEach
     void setUp() {
-        UserService userService = mock(UserService.class);
+        userService = mock(UserService.class);
         r2Client = mock(S3Client.class);
+        r2AsyncClient = new InMemoryS3AsyncClient();
         R2Service r2Service = mock(R2Service.class);
         restClient = mock(RestClient.class);
         imageRepository = mock(ImageRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
 
-        imageService = new ImageService(userService, r2Client, r2Service, restClient, imageRepository);
+        imageService = new ImageService(userService, r2Client, r2AsyncClient, r2Service, renditionService(), restClient,
+                imageRepository, imageBulkhead(), meterRegistry);
+        ReflectionTestUtils.setField(imageService, "bucket", "test-bucket");
         ReflectionTestUtils.setField(imageService, "maiEndpoint", "https://example.com/mai/v1/images/generations");
         ReflectionTestUtils.setField(imageService, "maiApiKey", "test-key");
-        ReflectionTestUtils.setField(imageService, "nonFoodKeywords", Set.of("hammer", "screw", "nail"));
+        ReflectionTestUtils.setField(imageService, "nonFoodMatcher", KeywordMatcher.compile(Set.of("hammer", "screw", "nail")));
+    }
+
+    private static ImageRenditionService renditionService() {
+        return new ImageRenditionService(List.of(150, 300, 768), List.of("jpeg"), 0.8f);
+    }
+
+    private static Bulkhead imageBulkhead() {
+        return new Bulkhead("image", 4, 16, Duration.ofSeconds(1), new SimpleMeterRegistry());
     }
 
     private User user(long id) {
@@ -106,7 +152,8 @@ public class ImageServiceTest {
         R2Service r2Service = mock(R2Service.class);
         RestClient restClient = mock(RestClient.class);
 
-        ImageService failingService = new ImageService(userService, failingR2, r2Service, restClient, imageRepository);
+        ImageService failingService = new ImageService(userService, failingR2, new InMemoryS3AsyncClient(), r2Service,
+                renditionService(), restClient, imageRepository, imageBulkhead(), new SimpleMeterRegistry());
 
         assertThrows(RuntimeException.class, () -> failingService.deleteByIdForUser(13L, u));
         verify(imageRepository, never()).deleteById(anyLong());
@@ -116,13 +163,11 @@ public class ImageServiceTest {
     void generateFoodImageFromParams_maiBadRequest_usesDefaultErrorMessage() {
         RestClient.RequestBodyUriSpec requestBodyUriSpec = mock(RestClient.RequestBodyUriSpec.class);
         RestClient.RequestBodySpec requestBodySpec = mock(RestClient.RequestBodySpec.class);
-        RestClient.ResponseSpec responseSpec = mock(RestClient.ResponseSpec.class);
 
         when(restClient.post()).thenReturn(requestBodyUriSpec);
         when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
         when(requestBodySpec.header(anyString(), anyString())).thenReturn(requestBodySpec);
         when(requestBodySpec.body(anyString())).thenReturn(requestBodySpec);
-        when(requestBodySpec.retrieve()).thenReturn(responseSpec);
 
         String maiErrorBody = """
                 {"error":{"message":"Request blocked by content filters.","code":"content_filter"}}
@@ -134,7 +179,7 @@ public class ImageServiceTest {
                 maiErrorBody.getBytes(StandardCharsets.UTF_8),
                 StandardCharsets.UTF_8
         );
-        when(responseSpec.body(Map.class)).thenThrow(badRequest);
+        when(requestBodySpec.exchange(any())).thenThrow(badRequest);
 
         FoodImageRequest request = new FoodImageRequest();
         request.setName("edible cube");
@@ -151,6 +196,32 @@ public class ImageServiceTest {
         verify(restClient, times(1)).post();
     }
 
+    @Test
+    void generateFoodImageFromParams_maiRateLimited_throwsProviderBusy() {
+        RestClient.RequestBodyUriSpec requestBodyUriSpec = mock(RestClient.RequestBodyUriSpec.class);
+        RestClient.RequestBodySpec requestBodySpec = mock(RestClient.RequestBodySpec.class);
+
+        when(restClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.header(anyString(), anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.body(anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.exchange(any())).thenThrow(HttpClientErrorException.create(
+                HttpStatus.TOO_MANY_REQUESTS,
+                "Too Many Requests",
+                HttpHeaders.EMPTY,
+                new byte[0],
+                StandardCharsets.UTF_8
+        ));
+
+        FoodImageRequest request = new FoodImageRequest();
+        request.setName("margherita pizza");
+        request.setStyle("natural");
+        request.setSize("1024x1024");
+        request.setIngredients("tomato, basil, mozzarella");
+
+        assertThrows(ProviderBusyException.class, () -> imageService.generateFoodImageFromParams(request));
+    }
+
     @Test
     void generateFoodImageFromParams_nonFoodKeywordInCourse_rejectedBeforeApiCall() {
         FoodImageRequest request = new FoodImageRequest();
@@ -169,4 +240,234 @@ public class ImageServiceTest {
         assertEquals("Sorry, I can only generate images of food.", ex.getMessage());
         verifyNoInteractions(restClient);
     }
+
+    @Test
+    void generateFoodImageForUser_b64Response_storesDecodedImage() throws Exception {
+        when(userService.findById(1L)).thenReturn(user(1L));
+        when(imageRepository.save(any(Image.class))).thenAnswer(inv -> inv.getArgument(0));
+        String base64 = pngBase64(320, 240);
+        stubMaiResponse("{\"created\":1,\"data\":[{\"b64_json\":\"" + base64 + "\"}]}");
+
+        FoodImageRequest request = new FoodImageRequest();
+        request.setName("margherita pizza");
+        request.setStyle("natural");
+        request.setSize("1024x1024");
+
+        ImageDto dto = imageService.generateFoodImageForUser(request, 1L);
+
+        assertArrayEquals(Base64.getDecoder().decode(base64), r2AsyncClient.objects.get(dto.getFilename()).bytes());
+    }
+
+    @Test
+    void generateFoodImageFromParams_b64Response_returnsDataUri() throws Exception {
+        String base64 = pngBase64(64, 64);
+        stubMaiResponse("{\"data\":[{\"revised_prompt\":\"pizza\",\"b64_json\":\"" + base64 + "\"}]}");
+
+        FoodImageRequest request = new FoodImageRequest();
+        request.setName("margherita pizza");
+        request.setStyle("natural");
+        request.setSize("1024x1024");
+
+        assertEquals("data:image/png;base64," + base64, imageService.generateFoodImageFromParams(request));
+    }
+
+    @Test
+    void generateFoodImageFromParams_obfuscatedKeyword_rejectedBeforeApiCall() {
+        FoodImageRequest request = new FoodImageRequest();
+        request.setName("H.A.M.M.E.R stew");
+        request.setStyle("natural");
+        request.setSize("1024x1024");
+
+        assertThrows(InappropriateRequestRefusalException.class, () -> imageService.generateFoodImageFromParams(request));
+        verifyNoInteractions(restClient);
+    }
+
+    @Test
+    void reloadKeywordsIfChanged_picksUpEditedFile() throws Exception {
+        Path keywords = Files.createTempFile("keywords", ".txt");
+        try {
+            Files.writeString(keywords, "hammer\n");
+            ReflectionTestUtils.setField(imageService, "keywordsFile", new FileSystemResource(keywords));
+            ReflectionTestUtils.setField(imageService, "keywordsReloadInterval", Duration.ZERO);
+            imageService.loadKeywords();
+            assertNull(nonFoodMatcher().findFirst("tape measure soup"));
+
+            Files.writeString(keywords, "hammer\ntape measure\n");
+            Files.setLastModifiedTime(keywords, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+            imageService.reloadKeywordsIfChanged();
+            assertEquals("tape measure", nonFoodMatcher().findFirst("tape measure soup"));
+
+            Files.writeString(keywords, "# emptied by mistake\n");
+            Files.setLastModifiedTime(keywords, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+            imageService.reloadKeywordsIfChanged();
+            assertEquals("tape measure", nonFoodMatcher().findFirst("tape measure soup"));
+        } finally {
+            Files.deleteIfExists(keywords);
+        }
+    }
+
+    private KeywordMatcher nonFoodMatcher() {
+        return (KeywordMatcher) ReflectionTestUtils.getField(imageService, "nonFoodMatcher");
+    }
+
+    @Test
+    void persistImageForUser_uploadsOriginalAndRenditionsAndRecordsTimings() throws Exception {
+        User u = user(1L);
+        when(userService.findById(1L)).thenReturn(u);
+        when(imageRepository.save(any(Image.class))).thenAnswer(inv -> {
+            Image image = inv.getArgument(0);
+            image.setId(42L);
+            return image;
+        });
+
+        ImageDto dto = imageService.persistImageForUser("data:image/png;base64," + pngBase64(1024, 768), 1L);
+
+        assertEquals(42L, dto.getId());
+        assertEquals(4, r2AsyncClient.objects.size());
+        assertEquals("image/png", r2AsyncClient.objects.get(dto.getFilename()).contentType());
+        assertEquals(List.of(150, 300, 768), dto.getRenditions().stream().map(ImageRenditionDto::width).toList());
+        InMemoryS3AsyncClient.StoredObject thumbnail = r2AsyncClient.objects.get(dto.getThumbnailFilename());
+        assertEquals("image/jpeg", thumbnail.contentType());
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(thumbnail.bytes()));
+        assertEquals(300, decoded.getWidth());
+        assertEquals(225, decoded.getHeight());
+        for (String step : List.of("decode", "upload_image", "renditions", "total")) {
+            assertEquals(1, meterRegistry.get("image.persist").tag("step", step).timer().count());
+        }
+        assertEquals(3, meterRegistry.get("image.persist").tag("step", "upload_rendition").timer().count());
+    }
+
+    @Test
+    void persistImageForUser_smallImage_isNotScaledUp() throws Exception {
+        when(userService.findById(1L)).thenReturn(user(1L));
+        when(imageRepository.save(any(Image.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        ImageDto dto = imageService.persistImageForUser("data:image/png;base64," + pngBase64(400, 400), 1L);
+
+        assertEquals(List.of(150, 300), dto.getRenditions().stream().map(ImageRenditionDto::width).toList());
+    }
+
+    @Test
+    void backfillRenditions_replacesOldThumbnail() throws Exception {
+        User u = user(1L);
+        Image img = Image.builder().id(20L).user(u).filename("users/1/images/old.png")
+                .thumbnailFilename("users/1/thumbnails/old.jpg").createdAt(LocalDateTime.now()).build();
+        when(imageRepository.findById(20L)).thenReturn(Optional.of(img));
+        when(r2Client.getObjectAsBytes(any(GetObjectRequest.class))).thenReturn(ResponseBytes.fromByteArray(
+                GetObjectResponse.builder().build(), Base64.getDecoder().decode(pngBase64(800, 800))));
+
+        imageService.backfillRenditions(20L);
+
+        assertEquals(3, img.getRenditions().size());
+        assertTrue(img.getThumbnailFilename().startsWith("users/1/renditions/"));
+        assertTrue(r2AsyncClient.objects.keySet().containsAll(img.getRenditions().stream().map(ImageRendition::key).toList()));
+        verify(imageRepository).save(img);
+        verify(r2Client).deleteObject(argThat((DeleteObjectRequest r) -> r.key().equals("users/1/thumbnails/old.jpg")));
+    }
+
+    @Test
+    void deleteByIdForUser_withRenditions_deletesEveryKey() {
+        User u = user(1L);
+        Image img = Image.builder().id(21L).user(u).filename("users/1/images/a.png")
+                .thumbnailFilename("users/1/renditions/a-300.webp")
+                .renditions(List.of(new ImageRendition(150, "users/1/renditions/a-150.webp"),
+                        new ImageRendition(300, "users/1/renditions/a-300.webp")))
+                .createdAt(LocalDateTime.now()).build();
+        when(imageRepository.findById(21L)).thenReturn(Optional.of(img));
+
+        imageService.deleteByIdForUser(21L, u);
+
+        verify(r2Client, times(3)).deleteObject(any(DeleteObjectRequest.class));
+    }
+
+    @Test
+    void persistImageForUser_writesNoTempFiles() throws Exception {
+        when(userService.findById(1L)).thenReturn(user(1L));
+        when(imageRepository.save(any(Image.class))).thenAnswer(inv -> inv.getArgument(0));
+        Set<String> before = tempImageFiles();
+
+        imageService.persistImageForUser("data:image/png;base64," + pngBase64(800, 800), 1L);
+
+        assertEquals(before, tempImageFiles());
+    }
+
+    private void stubMaiResponse(String json) throws IOException {
+        RestClient.RequestBodyUriSpec requestBodyUriSpec = mock(RestClient.RequestBodyUriSpec.class);
+        RestClient.RequestBodySpec requestBodySpec = mock(RestClient.RequestBodySpec.class);
+        ConvertibleClientHttpResponse response = mock(ConvertibleClientHttpResponse.class);
+
+        when(restClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.header(anyString(), anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.body(anyString())).thenReturn(requestBodySpec);
+        when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(response.getBody()).thenReturn(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        when(requestBodySpec.exchange(any())).thenAnswer(inv -> {
+            ExchangeFunction<?> exchange = inv.getArgument(0);
+            return exchange.exchange(mock(HttpRequest.class), response);
+        });
+    }
+
+    @Test
+    void loadImageContentForUser_passesSingleRangeAndETagToStorage() {
+        User u = user(1L);
+        Image img = Image.builder().id(30L).user(u).filename("users/1/images/c.png").createdAt(LocalDateTime.now()).build();
+        when(imageRepository.findById(30L)).thenReturn(Optional.of(img));
+        GetObjectResponse response = GetObjectResponse.builder()
+                .contentType("image/png").contentLength(10L).eTag("\"e1\"").contentRange("bytes 0-9/100").build();
+        when(r2Client.getObject(any(GetObjectRequest.class))).thenReturn(
+                new ResponseInputStream<>(response, AbortableInputStream.create(new ByteArrayInputStream(new byte[10]))));
+
+        ImageContent content = imageService.loadImageContentForUser(30L, u, "bytes=0-9", "\"e0\"");
+
+        verify(r2Client).getObject(argThat((GetObjectRequest r) -> "bytes=0-9".equals(r.range()) && "\"e0\"".equals(r.ifNoneMatch())));
+        assertTrue(content.isPartial());
+        assertEquals(10L, content.contentLength());
+        assertEquals("\"e1\"", content.eTag());
+        assertEquals("c.png", content.filename());
+    }
+
+    @Test
+    void loadImageContentForUser_multipleRanges_requestsWholeImage() {
+        User u = user(1L);
+        Image img = Image.builder().id(31L).user(u).filename("users/1/images/d.png").createdAt(LocalDateTime.now()).build();
+        when(imageRepository.findById(31L)).thenReturn(Optional.of(img));
+        when(r2Client.getObject(any(GetObjectRequest.class))).thenReturn(new ResponseInputStream<>(
+                GetObjectResponse.builder().build(), AbortableInputStream.create(new ByteArrayInputStream(new byte[1]))));
+
+        ImageContent content = imageService.loadImageContentForUser(31L, u, "bytes=0-1, 5-6", null);
+
+        verify(r2Client).getObject(argThat((GetObjectRequest r) -> r.range() == null));
+        assertFalse(content.isPartial());
+        assertEquals("image/png", content.contentType());
+    }
+
+    @Test
+    void loadImageContentForUser_storageStatuses_mapToNotModifiedAndRangeError() {
+        User u = user(1L);
+        Image img = Image.builder().id(32L).user(u).filename("users/1/images/e.png").createdAt(LocalDateTime.now()).build();
+        when(imageRepository.findById(32L)).thenReturn(Optional.of(img));
+        when(r2Client.getObject(any(GetObjectRequest.class)))
+                .thenThrow(S3Exception.builder().statusCode(304).build())
+                .thenThrow(S3Exception.builder().statusCode(416).build());
+
+        assertTrue(imageService.loadImageContentForUser(32L, u, null, "\"e1\"").isNotModified());
+        assertThrows(RangeNotSatisfiableException.class,
+                () -> imageService.loadImageContentForUser(32L, u, "bytes=500-", null));
+    }
+
+    private static Set<String> tempImageFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.map(f -> f.getFileName().toString())
+                    .filter(name -> name.startsWith("img-") || name.startsWith("thumb-"))
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    private static String pngBase64(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return Base64.getEncoder().encodeToString(out.toByteArray());
+    }
 }
@@ -0,0 +1,46 @@
+package org.ai.chatbot_backend.service.implementations;
+
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for R2: keeps uploaded objects in memory. Only putObject is implemented, every other
+ * operation keeps the SDK default (UnsupportedOperationException).
+ */
+class InMemoryS3AsyncClient implements S3AsyncClient {
+
+    record StoredObject(String contentType, byte[] bytes) {
+    }
+
+    final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+
+    @Override
+    public CompletableFuture<PutObjectResponse> putObject(PutObjectRequest request, AsyncRequestBody body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        return body.subscribe(buffer -> {
+                    byte[] chunk = new byte[buffer.remaining()];
+                    buffer.get(chunk);
+                    out.write(chunk, 0, chunk.length);
+                })
+                .thenApply(done -> {
+                    objects.put(request.key(), new StoredObject(request.contentType(), out.toByteArray()));
+                    return PutObjectResponse.builder().build();
+                });
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
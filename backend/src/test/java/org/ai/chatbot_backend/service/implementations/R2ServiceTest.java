@@ -0,0 +1,73 @@
+package org.ai.chatbot_backend.service.implementations;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.ai.chatbot_backend.config.ApplicationConfig;
+import org.ai.chatbot_backend.config.CacheNames;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class R2ServiceTest {
+
+    private CacheManager cacheManager;
+    private R2Service r2Service;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = cacheManager(Duration.ofMinutes(15), Duration.ofMinutes(5));
+        r2Service = new R2Service(cacheManager);
+        ReflectionTestUtils.setField(r2Service, "accountId", "test-account");
+        ReflectionTestUtils.setField(r2Service, "accessKey", "test-access-key");
+        ReflectionTestUtils.setField(r2Service, "secretKey", "test-secret-key");
+        ReflectionTestUtils.setField(r2Service, "bucketName", "test-bucket");
+        ReflectionTestUtils.setField(r2Service, "signatureDuration", Duration.ofMinutes(15));
+        r2Service.init();
+    }
+
+    private static CacheManager cacheManager(Duration validity, Duration minRemaining) {
+        return new ApplicationConfig(null).cacheManager(1000, Duration.ofHours(6), 500, Duration.ofHours(6),
+                10000, Duration.ofMinutes(30), 10000, Duration.ofSeconds(60), 100, validity, minRemaining);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> signedUrls() {
+        return (Cache<Object, Object>) cacheManager.getCache(CacheNames.SIGNED_URLS).getNativeCache();
+    }
+
+    @Test
+    void generateSignedUrls_signsEachKeyOnceAndServesRepeatsFromCache() {
+        Map<String, String> first = r2Service.generateSignedUrls(List.of("users/1/a.png", "users/1/b.jpg", "users/1/a.png"));
+
+        assertEquals(2, first.size());
+        assertTrue(first.get("users/1/a.png").contains("test-bucket"));
+        assertTrue(first.get("users/1/a.png").contains("/users/1/a.png?"));
+        assertTrue(first.get("users/1/a.png").contains("X-Amz-Expires=900"));
+
+        Map<String, String> second = r2Service.generateSignedUrls(List.of("users/1/a.png", "users/1/b.jpg", "users/1/c.webp"));
+
+        assertEquals(first.get("users/1/a.png"), second.get("users/1/a.png"));
+        assertEquals(3, second.size());
+        assertEquals(2, signedUrls().stats().hitCount());
+        assertEquals(second.get("users/1/c.webp"), r2Service.generateSignedUrl("users/1/c.webp"));
+    }
+
+    @Test
+    void signedUrlCache_expiresMinRemainingBeforeTheUrl() {
+        Duration expiresAfter = signedUrls().policy().expireAfterWrite().orElseThrow().getExpiresAfter();
+
+        assertEquals(Duration.ofMinutes(10), expiresAfter);
+        assertEquals(100, signedUrls().policy().eviction().orElseThrow().getMaximum());
+    }
+
+    @Test
+    void minRemainingNotShorterThanValidity_isRejected() {
+        assertThrows(IllegalStateException.class, () -> cacheManager(Duration.ofMinutes(5), Duration.ofMinutes(5)));
+    }
+}
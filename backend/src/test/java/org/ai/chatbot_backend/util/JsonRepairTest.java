@@ -0,0 +1,37 @@
+package org.ai.chatbot_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JsonRepairTest {
+
+    @Test
+    void repairObject_escapesRawNewlinesAndIgnoresTextAroundTheObject() {
+        String reply = "Here you go:\n{\"title\": \"Pasta\", \"recipe_markdown\": \"### Pasta\n\n- pasta {dried}\"}\nEnjoy {it}!";
+
+        assertEquals("{\"title\": \"Pasta\", \"recipe_markdown\": \"### Pasta\\n\\n- pasta {dried}\"}",
+                JsonRepair.repairObject(reply));
+    }
+
+    @Test
+    void repairObject_dropsTrailingCommasAndStrayClosers() {
+        assertEquals("{\"a\": [1, 2], \"b\": 3}", JsonRepair.repairObject("] {\"a\": [1, 2,], \"b\": 3,}"));
+        assertEquals("{\"a\": {\"b\": 1}}", JsonRepair.repairObject("{\"a\": {\"b\": 1]}"));
+    }
+
+    @Test
+    void repairObject_truncatedObject_returnsNull() {
+        assertNull(JsonRepair.repairObject("{\"a\": [\"x\"], \"b\": \"trunc\\"));
+        assertNull(JsonRepair.repairObject("{\"a\": [\"x\", \"y\""));
+        assertNull(JsonRepair.repairObject("{\"a\": 1,"));
+    }
+
+    @Test
+    void repairObject_withoutObjectOrOverTheBound_returnsNull() {
+        assertNull(JsonRepair.repairObject("Sorry, I can only talk about food."));
+        assertNull(JsonRepair.repairObject(null));
+        assertNull(JsonRepair.repairObject("{\"a\": \"" + "x".repeat(JsonRepair.MAX_LENGTH) + "\"}"));
+    }
+}
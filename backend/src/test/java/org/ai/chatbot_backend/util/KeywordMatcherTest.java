@@ -0,0 +1,58 @@
+package org.ai.chatbot_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class KeywordMatcherTest {
+
+    private final KeywordMatcher matcher = KeywordMatcher.compile(
+            List.of("hammer", "screw", "nut", "tape measure", "he", "her"));
+
+    @Test
+    void findFirst_matchesWholeWordsOnly() {
+        assertEquals("hammer", matcher.findFirst("Braised hammer, slow cooked"));
+        assertNull(matcher.findFirst("pine nuts and nutmeg"));
+        assertNull(matcher.findFirst("the hammerhead shark"));
+        assertEquals("nut", matcher.findFirst("one nut"));
+    }
+
+    @Test
+    void findFirst_matchesPhrasesAcrossAnySeparator() {
+        assertEquals("tape measure", matcher.findFirst("tape   measure"));
+        assertEquals("tape measure", matcher.findFirst("tape-measure pie"));
+        assertNull(matcher.findFirst("tape"));
+    }
+
+    @Test
+    void findFirst_seesThroughObfuscation() {
+        assertEquals("hammer", matcher.findFirst("HÀMMER"));
+        assertEquals("hammer", matcher.findFirst("h4mm3r"));
+        assertEquals("screw", matcher.findFirst("$crew"));
+        assertEquals("hammer", matcher.findFirst("h.a.m.m.e.r soup"));
+        assertEquals("hammer", matcher.findFirst("h a m m e r"));
+    }
+
+    @Test
+    void findFirst_overlappingKeywords_areAllFound() {
+        assertEquals("her", matcher.findFirst("for her"));
+        assertEquals("he", matcher.findFirst("he said"));
+    }
+
+    @Test
+    void findAll_returnsEachKeywordOnceInTextOrder() {
+        assertEquals(List.of("screw", "hammer", "tape measure"),
+                matcher.findAll("a screw, a hammer, another screw and a tape measure"));
+        assertEquals(List.of("hammer", "nut"), matcher.findAll("hammer nut"));
+        assertEquals(List.of(), matcher.findAll("pine nuts"));
+        assertEquals(List.of(), matcher.findAll(null));
+    }
+
+    @Test
+    void normalize_keepsNumbersAndPadsWithSpaces() {
+        assertEquals(" bake at 350 for 20 min ", KeywordMatcher.normalize("Bake at 350° for 20 min!"));
+    }
+}
@@ -0,0 +1,53 @@
+package org.ai.chatbot_backend.util;
+
+import org.ai.chatbot_backend.dto.GeneratedImage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaiResponseParserTest {
+
+    @Test
+    void parse_b64Json_returnsDecodedBytes() throws IOException {
+        byte[] image = {(byte) 0x89, 'P', 'N', 'G', 0, 1, 2, 3, (byte) 0xff};
+        String json = "{\"created\":1,\"data\":[{\"b64_json\":\"" + Base64.getEncoder().encodeToString(image) + "\"}]}";
+
+        GeneratedImage result = parse(json);
+
+        assertArrayEquals(image, result.bytes());
+        assertNull(result.url());
+    }
+
+    @Test
+    void parse_url_returnsUrl() throws IOException {
+        GeneratedImage result = parse("{\"data\":[{\"url\":\"https://example.com/a.png\"}]}");
+
+        assertNull(result.bytes());
+        assertEquals("https://example.com/a.png", result.url());
+    }
+
+    @Test
+    void parse_skipsUnrelatedFieldsBeforeAndInsideData() throws IOException {
+        String json = """
+                {"usage":{"tokens":[1,2]},"data":[{"content_filter":{"hate":false},"revised_prompt":"x","url":"https://example.com/b.png"}]}
+                """;
+
+        assertEquals("https://example.com/b.png", parse(json).url());
+    }
+
+    @Test
+    void parse_emptyOrMissingData_returnsNull() throws IOException {
+        assertNull(parse("{\"data\":[]}"));
+        assertNull(parse("{\"error\":{\"code\":\"content_filter\"}}"));
+        assertNull(parse("{\"data\":[{\"revised_prompt\":\"x\"}]}"));
+    }
+
+    private static GeneratedImage parse(String json) throws IOException {
+        return MaiResponseParser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,23 @@
+package org.ai.chatbot_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PromptNormalizerTest {
+
+    @Test
+    void normalize_ignoresCaseSpacingAndTrailingPunctuation() {
+        assertEquals("how long do i boil an egg", PromptNormalizer.normalize("  How long do I\tboil an EGG?! "));
+    }
+
+    @Test
+    void normalize_null_returnsEmpty() {
+        assertEquals("", PromptNormalizer.normalize(null));
+    }
+
+    @Test
+    void normalizeList_ignoresOrderDuplicatesAndEmptyItems() {
+        assertEquals("basil,tomato", PromptNormalizer.normalizeList("Tomato, basil,, tomato ,"));
+    }
+}
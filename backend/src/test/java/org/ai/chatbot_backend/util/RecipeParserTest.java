@@ -0,0 +1,137 @@
+package org.ai.chatbot_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipeParserTest {
+
+    private static final String RECIPE = """
+            ### Lemon Garlic Chicken
+
+            #### Ingredients:
+            - 2 chicken breasts
+            - 1 lemon, juiced
+
+            #### Instructions:
+            1. Season the chicken.
+            2) Bake for 25 minutes.
+
+            #### Notes:
+            - Rest before slicing.
+            """;
+
+    @Test
+    void parse_strictRecipe_extractsTitleIngredientsAndSteps() {
+        RecipeParser.ParsedRecipe recipe = RecipeParser.parse(RECIPE);
+
+        assertEquals(RecipeParser.Format.STRICT, recipe.format());
+        assertEquals("Lemon Garlic Chicken", recipe.title());
+        assertEquals(List.of("2 chicken breasts", "1 lemon, juiced"), recipe.ingredients());
+        assertEquals(List.of("Season the chicken.", "Bake for 25 minutes."), recipe.steps());
+    }
+
+    @Test
+    void parse_otherLabelStyles_areLoose() {
+        RecipeParser.ParsedRecipe recipe = RecipeParser.parse("""
+                ### Omelette
+
+                **Ingredients**
+                * 2 eggs
+                Ingredients should be cold.
+
+                Instructions:
+                1. Beat the eggs.
+                """);
+
+        assertEquals(RecipeParser.Format.LOOSE, recipe.format());
+        assertEquals(List.of("2 eggs"), recipe.ingredients());
+        assertEquals(List.of("Beat the eggs."), recipe.steps());
+    }
+
+    @Test
+    void parse_refusalsAndProse_areNotRecipes() {
+        assertEquals(RecipeParser.Format.NONE, RecipeParser.parse("Sorry, I can only talk about food.").format());
+        assertEquals(RecipeParser.Format.NONE, RecipeParser.parse("Pizza is a flatbread from Naples.").format());
+        assertEquals(RecipeParser.Format.NONE, RecipeParser.parse(RECIPE.replace("Rest before slicing.", "I cannot help with that.")).format());
+        assertEquals(RecipeParser.Format.NONE, RecipeParser.parse(null).format());
+        // the title has to come first
+        assertEquals(RecipeParser.Format.NONE, RecipeParser.parse("Here you go!\n\n" + RECIPE).format());
+    }
+
+    @Test
+    void parse_refusalWordsInsideTheSections_areCookingSteps() {
+        RecipeParser.ParsedRecipe recipe = RecipeParser.parse("""
+                ### Clarified Butter
+
+                #### Ingredients:
+                - 250 g unsalted butter
+
+                #### Instructions:
+                1. Clarify the butter over low heat.
+                2. Skim the foam, sorry cooks skip this and regret it.
+                """);
+
+        assertEquals(RecipeParser.Format.STRICT, recipe.format());
+        assertEquals(List.of("Clarify the butter over low heat.", "Skim the foam, sorry cooks skip this and regret it."),
+                recipe.steps());
+    }
+
+    @Test
+    void isRecipeSoFar_onlyOnceBothSectionsFollowATitleWithoutRefusal() {
+        RecipeParser parser = new RecipeParser();
+        parser.accept("### Garlic Rice\n\n#### Ingredients:\n- rice\n");
+        assertFalse(parser.isRecipeSoFar());
+        parser.accept("\n#### Instructions:\n");
+        assertTrue(parser.isRecipeSoFar());
+
+        RecipeParser refused = new RecipeParser();
+        refused.accept("### Garlic Rice\nSorry, I cannot help.\n#### Ingredients:\n- rice\n#### Instructions:\n");
+        assertFalse(refused.isRecipeSoFar());
+    }
+
+    @Test
+    void parse_titleIsTheFirstLevelThreeHeadingAnywhere() {
+        assertEquals("Lemon Garlic Chicken", RecipeParser.parse("Here you go!\n\n" + RECIPE).title());
+        assertNull(RecipeParser.parse("#### Ingredients:\n- eggs").title());
+    }
+
+    @Test
+    void accept_chunksSplitMidLine_giveTheSameResultAndEventsInOrder() {
+        List<String> events = new ArrayList<>();
+        RecipeParser parser = new RecipeParser(new RecipeParser.Listener() {
+            @Override
+            public void onTitle(String title) {
+                events.add("title:" + title);
+            }
+
+            @Override
+            public void onIngredient(String ingredient) {
+                events.add("ingredient:" + ingredient);
+            }
+
+            @Override
+            public void onStep(String step) {
+                events.add("step:" + step);
+            }
+        });
+
+        for (int i = 0; i < RECIPE.length(); i += 7) {
+            parser.accept(RECIPE.substring(i, Math.min(RECIPE.length(), i + 7)).replace("\n", "\r\n"));
+        }
+
+        assertEquals(RecipeParser.parse(RECIPE), parser.finish());
+        assertEquals(List.of(
+                "title:Lemon Garlic Chicken",
+                "ingredient:2 chicken breasts",
+                "ingredient:1 lemon, juiced",
+                "step:Season the chicken.",
+                "step:Bake for 25 minutes."), events);
+    }
+}
@@ -6,6 +6,7 @@ import org.ai.chatbot_backend.controller.GenAIController;
 import org.ai.chatbot_backend.dto.FoodImageRequest;
 import org.ai.chatbot_backend.exception.InappropriateRequestRefusalException;
 import org.ai.chatbot_backend.security.AuthHelper;
+import org.ai.chatbot_backend.security.PrincipalCache;
 import org.ai.chatbot_backend.service.implementations.*;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
@@ -48,6 +49,8 @@ public class GenIControllerValidationTests {
     @MockitoBean
     private JwtService jwtService;
     @MockitoBean
+    private PrincipalCache principalCache;
+    @MockitoBean
     private AuthHelper authHelper;
 
     private final ObjectMapper mapper = new ObjectMapper();
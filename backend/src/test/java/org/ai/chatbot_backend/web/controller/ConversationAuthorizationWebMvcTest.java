@@ -4,6 +4,7 @@ import org.ai.chatbot_backend.config.JwtService;
 import org.ai.chatbot_backend.controller.GenAIController;
 import org.ai.chatbot_backend.model.User;
 import org.ai.chatbot_backend.security.AuthHelper;
+import org.ai.chatbot_backend.security.PrincipalCache;
 import org.ai.chatbot_backend.service.implementations.*;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,6 +51,8 @@ class ConversationAuthorizationWebMvcTest {
 
     @MockitoBean
     private JwtService jwtService;
+    @MockitoBean
+    private PrincipalCache principalCache;
 
     @Test
     @WithMockUser(username = "user@example.com")
@@ -4,20 +4,26 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.ai.chatbot_backend.config.JwtService;
 import org.ai.chatbot_backend.controller.GenAIController;
 import org.ai.chatbot_backend.dto.AssistantMessageDto;
+import org.ai.chatbot_backend.dto.AssistantMessageStream;
 import org.ai.chatbot_backend.dto.ChatMessageRequest;
 import org.ai.chatbot_backend.dto.ConversationDto;
 import org.ai.chatbot_backend.dto.CreateRecipeResult;
+import org.ai.chatbot_backend.dto.CursorPageResult;
 import org.ai.chatbot_backend.dto.MessageDto;
 import org.ai.chatbot_backend.dto.PageResult;
 import org.ai.chatbot_backend.dto.RecipeDownloadRequest;
 import org.ai.chatbot_backend.dto.RecipeRequest;
+import org.ai.chatbot_backend.dto.RecipeStreamEvent;
 import org.ai.chatbot_backend.dto.UpdateTitleRequest;
 import org.ai.chatbot_backend.exception.EmptyTitleException;
 import org.ai.chatbot_backend.exception.InappropriateRequestRefusalException;
+import org.ai.chatbot_backend.exception.InvalidCursorException;
+import org.ai.chatbot_backend.exception.ProviderBusyException;
 import org.ai.chatbot_backend.exception.ResourceNotFoundException;
 import org.ai.chatbot_backend.model.Conversation;
 import org.ai.chatbot_backend.model.User;
 import org.ai.chatbot_backend.security.AuthHelper;
+import org.ai.chatbot_backend.security.PrincipalCache;
 import org.ai.chatbot_backend.service.implementations.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,19 +37,25 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -73,6 +85,8 @@ class GenAIControllerWebMvcTest {
     @MockitoBean
     private JwtService jwtService;
     @MockitoBean
+    private PrincipalCache principalCache;
+    @MockitoBean
     private UserDetailsService userDetailsService;
     @MockitoBean
     private AuthHelper authHelper;
@@ -130,6 +144,64 @@ class GenAIControllerWebMvcTest {
         verify(recipeHistoryService, times(1)).saveGeneratedRecipe(anyLong(), eq(createResult));
     }
 
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void streamRecipe_validPrompt_streamsSectionsThenDoneAndSavesHistory() throws Exception {
+        CreateRecipeResult createResult = new CreateRecipeResult(
+                "### Yummy\n\n#### Ingredients:\n- a\n\n#### Instructions:\n1. Mix", 42L,
+                "[Download recipe](http://localhost/api/v1/recipes/download/42)");
+
+        when(recipeService.streamRecipe(any(RecipeRequest.class), anyLong(), any())).thenAnswer(invocation -> {
+            Consumer<CreateRecipeResult> onComplete = invocation.getArgument(2);
+            return Flux.just(
+                            RecipeStreamEvent.title("Yummy"),
+                            RecipeStreamEvent.ingredient("a"),
+                            RecipeStreamEvent.step("Mix"))
+                    .concatWith(Mono.fromCallable(() -> {
+                        onComplete.accept(createResult);
+                        return RecipeStreamEvent.done(createResult);
+                    }));
+        });
+
+        MvcResult result = mockMvc.perform(post("/api/v1/recipes/stream")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recipeRequestJson("ing", "any", "")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(org.hamcrest.Matchers.stringContainsInOrder(
+                        "event:title", "\"title\":\"Yummy\"",
+                        "event:ingredient", "\"ingredient\":\"a\"",
+                        "event:step", "\"step\":\"Mix\"",
+                        "event:done", "\"fileId\":42")));
+
+        verify(recipeHistoryService, times(1)).saveGeneratedRecipe(anyLong(), eq(createResult));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void streamRecipe_providerBusy_sendsBusyMessageAsErrorEvent() throws Exception {
+        when(recipeService.streamRecipe(any(RecipeRequest.class), anyLong(), any()))
+                .thenReturn(Flux.error(new ProviderBusyException("busy, try again")));
+
+        MvcResult result = mockMvc.perform(post("/api/v1/recipes/stream")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recipeRequestJson("ing", "any", "")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(org.hamcrest.Matchers.stringContainsInOrder(
+                        "event:error", "\"message\":\"busy, try again\"")));
+
+        verifyNoInteractions(recipeHistoryService);
+    }
+
     @Test
     @WithMockUser(username = "user@example.com")
     void generateRecipe_inappropriatePrompt_noSave() throws Exception {
@@ -284,6 +356,69 @@ class GenAIControllerWebMvcTest {
         verify(chatService, never()).createAndSaveConversation(any(User.class), anyString());
     }
 
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void streamContinueConversation_RightUser_streamsTokensThenDone() throws Exception {
+        when(chatService.streamChat(any(User.class), anyString(), anyLong()))
+                .thenReturn(new AssistantMessageStream(1L, Flux.just("Hel", "lo")));
+
+        ChatMessageRequest req = new ChatMessageRequest();
+        req.setMessage("how are you");
+
+        MvcResult result = mockMvc.perform(post("/api/v1/chat/1/messages/stream")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(req)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("event:token")))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("\"assistantMessage\":\"Hello\"")));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void streamContinueConversation_providerBusy_sendsBusyMessageAsErrorEvent() throws Exception {
+        when(chatService.streamChat(any(User.class), anyString(), anyLong()))
+                .thenReturn(new AssistantMessageStream(1L, Flux.error(new ProviderBusyException("busy, try again"))));
+
+        ChatMessageRequest req = new ChatMessageRequest();
+        req.setMessage("how are you");
+
+        MvcResult result = mockMvc.perform(post("/api/v1/chat/1/messages/stream")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(req)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(org.hamcrest.Matchers.stringContainsInOrder(
+                        "event:error", "\"message\":\"busy, try again\"")))
+                .andExpect(content().string(org.hamcrest.Matchers.not(
+                        org.hamcrest.Matchers.containsString("Internal server error"))));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void streamContinueConversation_Unauthenticated_returns401() throws Exception {
+        when(authHelper.getAuthenticatedUserOrNull(any(Authentication.class))).thenReturn(null);
+
+        ChatMessageRequest req = new ChatMessageRequest();
+        req.setMessage("how are you");
+
+        mockMvc.perform(post("/api/v1/chat/1/messages/stream")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(req)))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(chatService);
+    }
+
     @Test
     @WithMockUser(username = "user@example.com")
     void continueConversation_RightUser_savesHistory() throws Exception {
@@ -421,6 +556,34 @@ class GenAIControllerWebMvcTest {
                 .andExpect(jsonPath("$.total").value(2));
     }
 
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void listConversations_WithCursor_returnsCursorPage() throws Exception {
+        List<ConversationDto> items = List.of(
+                new ConversationDto(3L, "t3", List.of()),
+                new ConversationDto(2L, "t2", List.of())
+        );
+        when(chatService.loadConversationsAfter(any(User.class), eq("abc"), anyInt(), eq(false)))
+                .thenReturn(new CursorPageResult<>(items, "next", null));
+
+        mockMvc.perform(get("/api/v1/chat").param("cursor", "abc").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.total").doesNotExist());
+        verify(chatService, never()).loadConversations(any(User.class), anyInt(), anyInt());
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void listConversations_InvalidCursor_returns400() throws Exception {
+        when(chatService.loadConversationsAfter(any(User.class), anyString(), anyInt(), anyBoolean()))
+                .thenThrow(new InvalidCursorException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/v1/chat").param("cursor", "garbage").with(csrf()))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser(username = "user@example.com")
     void listConversations_NotFound_returns404() throws Exception {
@@ -2,6 +2,7 @@ package org.ai.chatbot_backend.web.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.ai.chatbot_backend.config.JwtService;
+import org.ai.chatbot_backend.security.PrincipalCache;
 import org.ai.chatbot_backend.auth.PasswordResetController;
 import org.ai.chatbot_backend.dto.PasswordDto;
 import org.ai.chatbot_backend.email.EmailDetails;
@@ -47,6 +48,8 @@ public class PasswordResetControllerTest {
     @MockitoBean
     private JwtService jwtService;
     @MockitoBean
+    private PrincipalCache principalCache;
+    @MockitoBean
     private UserDetailsService userDetailsService;
 
     private final ObjectMapper mapper = new ObjectMapper();
@@ -0,0 +1,107 @@
+package org.ai.chatbot_backend.web.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.ai.chatbot_backend.config.JwtService;
+import org.ai.chatbot_backend.config.SecurityConfig;
+import org.ai.chatbot_backend.controller.GenAIController;
+import org.ai.chatbot_backend.dto.CreateRecipeResult;
+import org.ai.chatbot_backend.dto.RecipeRequest;
+import org.ai.chatbot_backend.dto.RecipeStreamEvent;
+import org.ai.chatbot_backend.security.AuthHelper;
+import org.ai.chatbot_backend.security.PrincipalCache;
+import org.ai.chatbot_backend.service.implementations.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the recipe endpoints through the real {@link SecurityConfig} with no user at all, the way a guest
+ * calls them from the frontend.
+ */
+@WebMvcTest(controllers = GenAIController.class)
+@Import(SecurityConfig.class)
+class RecipeGuestAccessWebMvcTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ChatService chatService;
+    @MockitoBean
+    private ImageService imageService;
+    @MockitoBean
+    private RecipeService recipeService;
+    @MockitoBean
+    private RecipeFileService recipeFileService;
+    @MockitoBean
+    private RecipeHistoryService recipeHistoryService;
+    @MockitoBean
+    private ConversationService conversationService;
+    @MockitoBean
+    private AuthHelper authHelper;
+
+    @MockitoBean
+    private JwtService jwtService;
+    @MockitoBean
+    private PrincipalCache principalCache;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private String recipeRequestJson() throws Exception {
+        RecipeRequest request = new RecipeRequest();
+        request.setIngredients("ing");
+        request.setCuisine("any");
+        request.setDietaryRestrictions("");
+        return mapper.writeValueAsString(request);
+    }
+
+    @Test
+    void generateRecipe_guest_returnsRecipeWithoutSaving() throws Exception {
+        CreateRecipeResult createResult = new CreateRecipeResult("### Yummy", null, null);
+        when(recipeService.createRecipe(any(RecipeRequest.class), isNull())).thenReturn(createResult);
+
+        mockMvc.perform(post("/api/v1/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recipeRequestJson()))
+                .andExpect(status().isOk());
+
+        verifyNoInteractions(recipeHistoryService);
+    }
+
+    @Test
+    void streamRecipe_guest_streamsWithoutSaving() throws Exception {
+        CreateRecipeResult createResult = new CreateRecipeResult("### Yummy", null, null);
+        when(recipeService.streamRecipe(any(RecipeRequest.class), isNull(), any())).thenReturn(Flux.just(
+                RecipeStreamEvent.title("Yummy"),
+                RecipeStreamEvent.done(createResult)));
+
+        MvcResult result = mockMvc.perform(post("/api/v1/recipes/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recipeRequestJson()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(org.hamcrest.Matchers.stringContainsInOrder(
+                        "event:title", "\"title\":\"Yummy\"", "event:done")));
+
+        verifyNoInteractions(recipeHistoryService);
+    }
+}
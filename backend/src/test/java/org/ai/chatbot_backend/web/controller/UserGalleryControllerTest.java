@@ -2,27 +2,41 @@ package org.ai.chatbot_backend.web.controller;
 
 import org.ai.chatbot_backend.config.JwtService;
 import org.ai.chatbot_backend.controller.UserGalleryController;
+import org.ai.chatbot_backend.dto.ImageContent;
 import org.ai.chatbot_backend.enums.UserRole;
 import org.ai.chatbot_backend.model.User;
 import org.ai.chatbot_backend.security.AuthHelper;
+import org.ai.chatbot_backend.security.PrincipalCache;
 import org.ai.chatbot_backend.service.implementations.ImageService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserGalleryController.class)
@@ -31,11 +45,16 @@ class UserGalleryControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private UserGalleryController userGalleryController;
+
     @MockitoBean
     private ImageService imageService;
 
     @MockitoBean
     private JwtService jwtService;
+    @MockitoBean
+    private PrincipalCache principalCache;
 
     @MockitoBean
     private UserDetailsService userDetailsService;
@@ -86,4 +105,77 @@ class UserGalleryControllerTest {
         mockMvc.perform(delete("/api/v1/users/me/images/123").with(csrf()))
                 .andExpect(status().isUnauthorized());
     }
+
+    private static UsernamePasswordAuthenticationToken auth(User user) {
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    @Test
+    void downloadImage_fullImage_returnsStoredHeaders() throws Exception {
+        User user = mockUser();
+        when(authHelper.getAuthenticatedUserOrNull(any(Authentication.class))).thenReturn(user);
+        byte[] bytes = {1, 2, 3, 4, 5};
+        when(imageService.loadImageContentForUser(17L, user, null, null)).thenReturn(new ImageContent(
+                new ByteArrayResource(bytes), "a.webp", "image/webp", 5L, "\"abc\"", null));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/users/me/images/17/download").with(authentication(auth(user))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/webp"))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "5"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().bytes(bytes));
+    }
+
+    @Test
+    void downloadImage_range_returnsPartialContent() throws Exception {
+        User user = mockUser();
+        when(authHelper.getAuthenticatedUserOrNull(any(Authentication.class))).thenReturn(user);
+        when(imageService.loadImageContentForUser(17L, user, "bytes=0-1", null)).thenReturn(new ImageContent(
+                new ByteArrayResource(new byte[]{1, 2}), "a.png", "image/png", 2L, "\"abc\"", "bytes 0-1/5"));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/users/me/images/17/download")
+                        .header(HttpHeaders.RANGE, "bytes=0-1")
+                        .with(authentication(auth(user))))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-1/5"))
+                .andExpect(content().bytes(new byte[]{1, 2}));
+    }
+
+    @Test
+    void downloadImage_matchingETag_returnsNotModified() throws Exception {
+        User user = mockUser();
+        when(authHelper.getAuthenticatedUserOrNull(any(Authentication.class))).thenReturn(user);
+        when(imageService.loadImageContentForUser(17L, user, null, "\"abc\""))
+                .thenReturn(ImageContent.notModified("a.png", "\"abc\""));
+
+        mockMvc.perform(get("/api/v1/users/me/images/17/download")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\"")
+                        .with(authentication(auth(user))))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""));
+    }
+
+    @Test
+    void downloadImage_redirectMode_redirectsToSignedUrl() throws Exception {
+        User user = mockUser();
+        when(authHelper.getAuthenticatedUserOrNull(any(Authentication.class))).thenReturn(user);
+        when(imageService.signedDownloadUrl(17L, user)).thenReturn("https://r2.example.com/users/1/images/a.png?X-Amz-Signature=x");
+        ReflectionTestUtils.setField(userGalleryController, "redirectDownloads", true);
+        try {
+            mockMvc.perform(get("/api/v1/users/me/images/17/download").with(authentication(auth(user))))
+                    .andExpect(status().isFound())
+                    .andExpect(header().string(HttpHeaders.LOCATION, "https://r2.example.com/users/1/images/a.png?X-Amz-Signature=x"));
+        } finally {
+            ReflectionTestUtils.setField(userGalleryController, "redirectDownloads", false);
+        }
+        verify(imageService, never()).loadImageContentForUser(anyLong(), any(), any(), any());
+    }
 }
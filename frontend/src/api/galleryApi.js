@@ -33,6 +33,11 @@ export async function downloadImage(id) {
   let filename = "image.png";
   const disposition = res.headers.get("content-disposition");
 
+  if (!disposition && res.redirected) {
+    // redirected to signed storage, the header may not be exposed cross-origin
+    filename = new URL(res.url).pathname.split("/").pop() || filename;
+  }
+
   if (disposition) {
     // Matches simple Content-Disposition filename forms, e.g.:
     // filename=image.png or filename="image.png"
@@ -8,6 +8,11 @@ import PaginationControls from "../commons/PaginationControls";
 import ConfirmModal from "../commons/ConfirmModal";
 import useGallery from "../../hooks/useGallery";
 
+function toSrcSet(renditions) {
+  if (!renditions?.length) return undefined;
+  return renditions.map((r) => `${r.url} ${r.width}w`).join(", ");
+}
+
 export default function Gallery() {
   const {
     userImages,
@@ -47,6 +52,8 @@ export default function Gallery() {
             >
               <img
                 src={image.thumbnailUrl}
+                srcSet={toSrcSet(image.renditions)}
+                sizes="(max-width: 600px) 50vw, 300px"
                 alt={image.alt ?? `Generated ${index}`}
                 loading="lazy"
                 width="300"